@@ -0,0 +1,70 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.Department;
+import com.example.demo.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic synthetic entities shared by the microbenchmarks
+ */
+final class BenchmarkData {
+    
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 9, 0);
+    
+    private BenchmarkData() {
+    }
+    
+    static User employee(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("employee" + id + "@company.com");
+        user.setPassword("{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3vZbu7Y6sZ0z5R2bX4xQn1e");
+        user.setFirstName("First" + id);
+        user.setLastName("Last" + id);
+        user.setRole(User.Role.EMPLOYEE);
+        user.setIsActive(true);
+        user.setPosition(id % 3 == 0 ? "Software Engineer" : "Analyst");
+        user.setDepartment("Department " + (id % 20));
+        user.setPhoneNumber("+1-555-" + (1000 + id % 9000));
+        user.setHireDate(BASE_TIME.minusDays(id));
+        user.setAvatarUrl("https://i.pravatar.cc/40?img=" + (id % 70));
+        user.setCreatedAt(BASE_TIME);
+        user.setUpdatedAt(BASE_TIME);
+        return user;
+    }
+    
+    static List<User> employees(int count) {
+        List<User> employees = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            employees.add(employee(id));
+        }
+        return employees;
+    }
+    
+    /**
+     * Departments with ids 1..count; every department is managed by the employee with the same id
+     */
+    static List<Department> departments(int count) {
+        List<Department> departments = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Department department = new Department();
+            department.setId(id);
+            department.setName("Department " + id);
+            department.setDescription("Synthetic department " + id);
+            department.setManagerId(id);
+            department.setBudget(BigDecimal.valueOf(100_000 + id * 1000));
+            department.setLocation("Building " + (id % 5));
+            department.setEstablishedDate(BASE_TIME.minusYears(id % 10));
+            department.setIconColor("bg-blue-500");
+            department.setIsActive(true);
+            department.setCreatedAt(BASE_TIME);
+            department.setUpdatedAt(BASE_TIME);
+            departments.add(department);
+        }
+        return departments;
+    }
+}
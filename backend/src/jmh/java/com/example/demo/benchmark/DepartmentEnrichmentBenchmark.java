@@ -0,0 +1,105 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.DepartmentResponse;
+import com.example.demo.entity.Department;
+import com.example.demo.entity.User;
+import com.example.demo.repository.DepartmentRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.DepartmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of DepartmentService enrichment (employee counts and manager lookup joined onto each department)
+ * over synthetic lists. Repositories are in-memory stubs returning precomputed results,
+ * so the numbers exclude database time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DepartmentEnrichmentBenchmark {
+    
+    @Param({"10", "100", "1000"})
+    private int departmentCount;
+    
+    private DepartmentService departmentService;
+    private List<Department> departments;
+    
+    @Setup
+    public void setUp() {
+        departments = BenchmarkData.departments(departmentCount);
+        List<User> managers = BenchmarkData.employees(departmentCount);
+        List<Object[]> counts = new ArrayList<>();
+        for (Department department : departments) {
+            counts.add(new Object[]{department.getId(), department.getId() * 7});
+        }
+        
+        Map<Long, User> managersById = new HashMap<>();
+        for (User manager : managers) {
+            managersById.put(manager.getId(), manager);
+        }
+        
+        DepartmentRepository departmentRepository = stub(DepartmentRepository.class, (method, args) -> switch (method) {
+            case "findByIsActiveTrue" -> departments;
+            case "findDepartmentEmployeeCounts" -> counts;
+            default -> throw new UnsupportedOperationException(method);
+        });
+        UserRepository userRepository = stub(UserRepository.class, (method, args) -> {
+            if (!method.equals("findAllByIdCached")) {
+                throw new UnsupportedOperationException(method);
+            }
+            List<User> found = new ArrayList<>();
+            for (Object id : (Iterable<?>) args[0]) {
+                User manager = managersById.get(id);
+                if (manager != null) {
+                    found.add(manager);
+                }
+            }
+            return found;
+        });
+        departmentService = new DepartmentService(departmentRepository, userRepository, null, null);
+    }
+    
+    @Benchmark
+    public List<DepartmentResponse> enrichAllDepartments() {
+        return departmentService.getAllDepartments();
+    }
+    
+    private interface StubAnswer {
+        Object answer(String method, Object[] args);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, StubAnswer answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            return answer.answer(method.getName(), args);
+        });
+    }
+}
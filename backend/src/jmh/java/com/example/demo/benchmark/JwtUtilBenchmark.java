@@ -0,0 +1,93 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.User;
+import com.example.demo.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation, verification and principal extraction in JwtUtil, with and without the verified-claims cache
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+    
+    private static final String SECRET = "mySecretKey123456789012345678901234567890123456789012345678901234567890";
+    
+    // Distinct tokens cycled through by parseUncached; a size-0 Caffeine cache evicts asynchronously,
+    // so repeating one token would still be served from the cache
+    private static final int UNCACHED_TOKENS = 4096;
+    
+    private JwtUtil cachedJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private User user;
+    private String token;
+    private Claims claims;
+    private String[] uncachedTokens;
+    private int nextUncachedToken;
+    
+    @Setup
+    public void setUp() {
+        cachedJwtUtil = jwtUtil(10_000);
+        uncachedJwtUtil = jwtUtil(0);
+        user = BenchmarkData.employee(42);
+        token = cachedJwtUtil.generateToken(user);
+        claims = cachedJwtUtil.extractVerifiedClaims(token);
+        uncachedTokens = new String[UNCACHED_TOKENS];
+        for (int i = 0; i < UNCACHED_TOKENS; i++) {
+            uncachedTokens[i] = uncachedJwtUtil.generateToken(BenchmarkData.employee(i + 1));
+        }
+    }
+    
+    private static JwtUtil jwtUtil(long claimsCacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheSize", claimsCacheSize);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return cachedJwtUtil.generateToken(user);
+    }
+    
+    @Benchmark
+    public Claims parseCached() {
+        return cachedJwtUtil.extractVerifiedClaims(token);
+    }
+    
+    @Benchmark
+    public Claims parseUncached() {
+        String next = uncachedTokens[nextUncachedToken];
+        nextUncachedToken = (nextUncachedToken + 1) % UNCACHED_TOKENS;
+        return uncachedJwtUtil.extractVerifiedClaims(next);
+    }
+    
+    @Benchmark
+    public boolean validateToken() {
+        return cachedJwtUtil.validateToken(token, user);
+    }
+    
+    @Benchmark
+    public User extractPrincipal() {
+        return cachedJwtUtil.extractPrincipal(claims);
+    }
+}
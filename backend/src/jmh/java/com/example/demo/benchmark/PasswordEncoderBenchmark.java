@@ -0,0 +1,62 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.SecurityConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the application password encoder at the configurable BCrypt strengths,
+ * including verification of legacy hashes stored without an {id} prefix
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordEncoderBenchmark {
+    
+    private static final String PASSWORD = "employee123";
+    
+    @Param({"10", "12"})
+    private int strength;
+    
+    private PasswordEncoder passwordEncoder;
+    private String encodedPassword;
+    private String legacyEncodedPassword;
+    
+    @Setup
+    public void setUp() {
+        passwordEncoder = new SecurityConfig(null).passwordEncoder(strength);
+        encodedPassword = passwordEncoder.encode(PASSWORD);
+        legacyEncodedPassword = new BCryptPasswordEncoder(strength).encode(PASSWORD);
+    }
+    
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode(PASSWORD);
+    }
+    
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, encodedPassword);
+    }
+    
+    @Benchmark
+    public boolean matchesLegacyHash() {
+        return passwordEncoder.matches(PASSWORD, legacyEncodedPassword);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.DepartmentResponse;
+import com.example.demo.dto.EmployeeResponse;
+import com.example.demo.entity.Department;
+import com.example.demo.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping and JSON serialization of list responses, as done for every list endpoint
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+    
+    @Param({"20", "100", "1000"})
+    private int size;
+    
+    private ObjectMapper objectMapper;
+    private List<User> employees;
+    private List<Department> departments;
+    private List<EmployeeResponse> employeeResponses;
+    
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot configures for MVC
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        employees = BenchmarkData.employees(size);
+        departments = BenchmarkData.departments(size);
+        for (int i = 0; i < size; i++) {
+            departments.get(i).setManager(employees.get(i));
+            departments.get(i).setEmployeeCount((long) i);
+        }
+        employeeResponses = mapEmployees();
+    }
+    
+    @Benchmark
+    public List<EmployeeResponse> mapEmployees() {
+        List<EmployeeResponse> responses = new ArrayList<>(employees.size());
+        for (User employee : employees) {
+            responses.add(EmployeeResponse.fromUser(employee));
+        }
+        return responses;
+    }
+    
+    @Benchmark
+    public byte[] serializeEmployees() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(employeeResponses);
+    }
+    
+    @Benchmark
+    public byte[] mapAndSerializeEmployees() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(mapEmployees());
+    }
+    
+    @Benchmark
+    public List<DepartmentResponse> mapDepartments() {
+        List<DepartmentResponse> responses = new ArrayList<>(departments.size());
+        for (Department department : departments) {
+            responses.add(DepartmentResponse.fromDepartment(department));
+        }
+        return responses;
+    }
+    
+    @Benchmark
+    public byte[] mapAndSerializeDepartments() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(mapDepartments());
+    }
+}
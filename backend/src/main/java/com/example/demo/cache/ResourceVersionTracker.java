@@ -0,0 +1,67 @@
+package com.example.demo.cache;
+
+import com.example.demo.event.DepartmentChangedEvent;
+import com.example.demo.event.EmployeeChangedEvent;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write counters for the employee and department tables, used as strong ETags on the read endpoints.
+ * <p>
+ * The counters are bumped by change events after commit, so a version seen by a request never describes
+ * data older than what the request can load. Controllers compare the tag with If-None-Match before calling
+ * the services and answer 304 without touching the database. The startup epoch is part of every tag,
+ * so a restart (which may have missed writes made by other tools) invalidates all of them.
+ * <p>
+ * Like the search index and the department name registry, this assumes a single application instance.
+ */
+@Component
+public class ResourceVersionTracker {
+    
+    /**
+     * Responses may be stored by the browser but must be revalidated with the ETag before each use
+     */
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong employeeVersion = new AtomicLong();
+    private final AtomicLong departmentVersion = new AtomicLong();
+    
+    @TransactionalEventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        employeeVersion.incrementAndGet();
+    }
+    
+    @TransactionalEventListener
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        // A rename rewrites the department name of its employees as well
+        if (event.isRename()) {
+            employeeVersion.incrementAndGet();
+        }
+        departmentVersion.incrementAndGet();
+    }
+    
+    /**
+     * Tag for responses built from employees only
+     */
+    public String employeesETag() {
+        return "\"e-" + epoch + "-" + employeeVersion.get() + "\"";
+    }
+    
+    /**
+     * Tag for responses built from departments only (department name lists)
+     */
+    public String departmentNamesETag() {
+        return "\"n-" + epoch + "-" + departmentVersion.get() + "\"";
+    }
+    
+    /**
+     * Tag for department responses, which also carry employee counts and manager details
+     */
+    public String departmentsETag() {
+        return "\"d-" + epoch + "-" + departmentVersion.get() + "-" + employeeVersion.get() + "\"";
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.demo.cache;
+
+import com.example.demo.event.DepartmentChangedEvent;
+import com.example.demo.event.EmployeeChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoded JSON bodies of hot list endpoints, keyed by endpoint and query parameters.
+ * <p>
+ * A hit skips entity loading, response mapping and Jackson serialization and writes the stored bytes,
+ * gzip-compressed when the client accepts it. Every entry remembers the ETag from {@link ResourceVersionTracker}
+ * it was built under and is only served while that is still the current tag, so a body built from data
+ * older than the latest commit is never returned. Change events also drop the affected entries so stale
+ * bodies do not hold memory until they are evicted by size.
+ * <p>
+ * The gzip and identity bodies are different representations, so responses to clients that accept gzip carry
+ * the version tag with a {@value #GZIP_ETAG_SUFFIX} suffix and every response varies by Accept-Encoding.
+ */
+@Component
+public class ResponseBodyCache {
+    
+    public static final String EMPLOYEES = "employees";
+    public static final String DEPARTMENTS = "departments";
+    
+    // Below this size gzip saves little and costs a deflater per response
+    private static final int MIN_COMPRESS_SIZE = 1024;
+    
+    private static final String GZIP_ETAG_SUFFIX = "-gz";
+    
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Cache<String, Entry> entries;
+    
+    public ResponseBodyCache(ObjectMapper objectMapper,
+                             @Value("${app.response-cache.enabled:true}") boolean enabled,
+                             @Value("${app.response-cache.max-size:64MB}") DataSize maxSize,
+                             MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, Entry entry) -> entry.size())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "response.body");
+    }
+    
+    /**
+     * Check the request's If-None-Match against the tag of the representation it would receive, and set that
+     * tag and the Vary header on the response (on a 304 as well).
+     *
+     * @param etag current tag of the data the body is built from
+     * @return true if the response is 304 and nothing more should be written
+     */
+    public boolean checkNotModified(String etag, WebRequest request) {
+        if (request instanceof NativeWebRequest nativeRequest) {
+            HttpServletResponse response = nativeRequest.getNativeResponse(HttpServletResponse.class);
+            if (response != null) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+        }
+        return request.checkNotModified(representationETag(etag, acceptsGzip(request)));
+    }
+    
+    /**
+     * Serve the cached body for this endpoint and the request's parameters, or build it with the loader,
+     * store it and serve it. The caller has already set the ETag with {@link #checkNotModified(String, WebRequest)}.
+     *
+     * @param endpoint one of {@link #EMPLOYEES} or {@link #DEPARTMENTS}
+     * @param etag     current tag of the data the body is built from
+     * @param loader   builds the response body object; only called on a miss
+     */
+    public ResponseEntity<byte[]> respond(String endpoint, String etag, WebRequest request,
+                                          Callable<?> loader) throws Exception {
+        String key = key(endpoint, request.getParameterMap());
+        Entry entry = enabled ? entries.getIfPresent(key) : null;
+        if (entry == null || !entry.etag().equals(etag)) {
+            entry = Entry.of(etag, objectMapper.writeValueAsBytes(loader.call()));
+            if (enabled) {
+                entries.put(key, entry);
+            }
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(ResourceVersionTracker.REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        // Bodies below MIN_COMPRESS_SIZE go out uncompressed under the gzip tag too; for one version they
+        // always do, so the tag still names a single representation
+        if (entry.gzip() != null && acceptsGzip(request)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entry.gzip());
+        }
+        return response.body(entry.json());
+    }
+    
+    @TransactionalEventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        // Department bodies carry employee counts and manager details
+        evict(EMPLOYEES);
+        evict(DEPARTMENTS);
+    }
+    
+    @TransactionalEventListener
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        // Employee bodies carry the department name
+        if (event.isRename()) {
+            evict(EMPLOYEES);
+        }
+        evict(DEPARTMENTS);
+    }
+    
+    private void evict(String endpoint) {
+        String prefix = endpoint + "?";
+        entries.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+    
+    private static String key(String endpoint, Map<String, String[]> parameters) {
+        StringBuilder key = new StringBuilder(endpoint).append('?');
+        new TreeMap<>(parameters).forEach((name, values) ->
+                key.append(name).append('=').append(Arrays.toString(values)).append('&'));
+        return key.toString();
+    }
+    
+    private static boolean acceptsGzip(WebRequest request) {
+        return acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+    
+    /**
+     * Whether an Accept-Encoding value allows gzip: listed (or x-gzip) with a non-zero quality, or not listed and
+     * covered by a non-zero "*". A quality of 0 means "not acceptable".
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzipQuality = quality(parameters);
+            } else if (name.equals("*")) {
+                anyQuality = quality(parameters);
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return anyQuality != null && anyQuality > 0;
+    }
+    
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    // An unreadable weight does not make a coding acceptable
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+    
+    static String representationETag(String etag, boolean gzip) {
+        return gzip ? etag.substring(0, etag.length() - 1) + GZIP_ETAG_SUFFIX + "\"" : etag;
+    }
+    
+    private record Entry(String etag, byte[] json, byte[] gzip) {
+        
+        static Entry of(String etag, byte[] json) {
+            return new Entry(etag, json, json.length >= MIN_COMPRESS_SIZE ? gzip(json) : null);
+        }
+        
+        int size() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+        
+        private static byte[] gzip(byte[] data) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(data);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
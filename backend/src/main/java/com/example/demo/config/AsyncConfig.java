@@ -0,0 +1,13 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Runs @Async methods on Spring Boot's application task executor, which uses virtual threads
+ * when spring.threads.virtual.enabled=true and a bounded platform thread pool otherwise.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -2,13 +2,17 @@ package com.example.demo.config;
 
 import com.example.demo.entity.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.service.UserProfileService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
@@ -17,8 +21,14 @@ public class DataInitializer implements CommandLineRunner {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserProfileService userProfileService;
+    
+    // Sample profile texts by email; profiles are stored once the employee has an id
+    private final Map<String, String> sampleProfiles = new HashMap<>();
 
+    // Read-write, so the existence checks read the primary rather than a read replica that may lag behind
     @Override
+    @Transactional
     public void run(String... args) throws Exception {
         initializeDatabase();
     }
@@ -110,7 +120,8 @@ public class DataInitializer implements CommandLineRunner {
         
         for (User employee : sampleEmployees) {
             if (!userRepository.existsByEmail(employee.getEmail())) {
-                userRepository.save(employee);
+                User savedEmployee = userRepository.save(employee);
+                userProfileService.saveProfile(savedEmployee.getId(), sampleProfiles.get(employee.getEmail()));
                 log.info("Created employee: {} - {}", employee.getFullName(), employee.getEmail());
             }
         }
@@ -131,7 +142,7 @@ public class DataInitializer implements CommandLineRunner {
         employee.setAvatarUrl(avatarUrl);
         employee.setPhoneNumber(phone);
         employee.setHireDate(hireDate);
-        employee.setProfile(profile);
+        sampleProfiles.put(email, profile);
         employee.setPassword(passwordEncoder.encode("employee123")); // Default password
         return employee;
     }
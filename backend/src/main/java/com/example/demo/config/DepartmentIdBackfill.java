@@ -0,0 +1,57 @@
+package com.example.demo.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills users.department_id from the department name for rows written before the column existed.
+ * <p>
+ * Walks the table in id ranges, one short auto-committed UPDATE per range, so the table stays writable
+ * while a large backfill runs and an interrupted run simply continues on the next start. Rows whose name
+ * matches no department keep a null id and are reported. Cached users and query results are dropped
+ * afterwards so nothing loaded before the backfill writes the old null back.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DepartmentIdBackfill implements ApplicationRunner {
+    
+    private static final int BATCH_SIZE = 1000;
+    private static final String MISSING = "department_id IS NULL AND department IS NOT NULL";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final SecondLevelCacheRegions secondLevelCacheRegions;
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        int missing = countMissing();
+        if (missing == 0) {
+            return;
+        }
+        long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users WHERE " + MISSING, Long.class);
+        long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users WHERE " + MISSING, Long.class);
+        
+        for (long from = minId; from <= maxId; from += BATCH_SIZE) {
+            jdbcTemplate.update("UPDATE users SET department_id = " +
+                    "(SELECT d.id FROM departments d WHERE d.name = users.department) " +
+                    "WHERE " + MISSING + " AND id >= ? AND id < ?", from, from + BATCH_SIZE);
+        }
+        secondLevelCacheRegions.evictAll();
+        
+        int unmatched = countMissing();
+        log.info("Backfilled department_id for {} users", missing - unmatched);
+        if (unmatched > 0) {
+            log.warn("{} users have a department name that matches no department; their department_id stays empty",
+                    unmatched);
+        }
+    }
+    
+    private int countMissing() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE " + MISSING, Integer.class);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.demo.config;
+
+import com.example.demo.entity.UserProfile;
+import com.example.demo.repository.UserProfileRepository;
+import com.example.demo.service.UserProfileService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Moves profile text left in the legacy users.profile column into user_profiles.
+ * <p>
+ * Migration V1_1 creates user_profiles but keeps the old column, so a database baselined from the schema before
+ * profiles were split out still carries the text inline. Each batch copies the text (compressed like any other
+ * write) and clears the column in one transaction; profiles already present in user_profiles win over the legacy
+ * copy. Does nothing once a later migration has dropped the column.
+ */
+@Component
+@Slf4j
+public class ProfileColumnMigration implements ApplicationRunner {
+    
+    private static final int BATCH_SIZE = 500;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final UserProfileService userProfileService;
+    private final UserProfileRepository userProfileRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    public ProfileColumnMigration(JdbcTemplate jdbcTemplate,
+                                  UserProfileService userProfileService,
+                                  UserProfileRepository userProfileRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userProfileService = userProfileService;
+        this.userProfileRepository = userProfileRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!hasLegacyColumn()) {
+            return;
+        }
+        
+        long lastId = 0;
+        int moved = 0;
+        Map<Long, String> batch;
+        while (!(batch = loadBatch(lastId)).isEmpty()) {
+            Map<Long, String> current = batch;
+            moved += transactionTemplate.execute(status -> moveBatch(current));
+            lastId = Collections.max(batch.keySet());
+        }
+        
+        if (moved > 0) {
+            log.info("Moved {} profiles from users.profile to user_profiles", moved);
+        }
+    }
+    
+    private Map<Long, String> loadBatch(long afterId) {
+        Map<Long, String> batch = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, profile FROM users WHERE profile IS NOT NULL AND id > ? ORDER BY id LIMIT ?",
+                row -> {
+                    batch.put(row.getLong("id"), row.getString("profile"));
+                },
+                afterId, BATCH_SIZE);
+        return batch;
+    }
+    
+    private int moveBatch(Map<Long, String> batch) {
+        List<Long> alreadyMoved = userProfileRepository.findAllById(batch.keySet()).stream()
+                .map(UserProfile::getUserId)
+                .collect(Collectors.toList());
+        Map<Long, String> toInsert = new LinkedHashMap<>(batch);
+        alreadyMoved.forEach(toInsert::remove);
+        
+        userProfileService.insertProfiles(toInsert);
+        jdbcTemplate.batchUpdate("UPDATE users SET profile = NULL WHERE id = ?",
+                batch.keySet().stream().map(id -> new Object[]{id}).collect(Collectors.toList()));
+        return toInsert.size();
+    }
+    
+    private boolean hasLegacyColumn() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String[] names : new String[][]{{"users", "profile"}, {"USERS", "PROFILE"}}) {
+                try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null, names[0], names[1])) {
+                    if (columns.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+}
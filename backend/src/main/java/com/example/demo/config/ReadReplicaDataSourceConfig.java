@@ -0,0 +1,63 @@
+package com.example.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Primary and read replica connection pools, active when app.datasource.replica.jdbc-url is set.
+ * <p>
+ * The primary pool is configured by spring.datasource as before, the replica pool by the Hikari properties under
+ * app.datasource.replica. The DataSource used by JPA, JdbcTemplate and Flyway routes read-only transactions
+ * (service methods marked {@code @Transactional(readOnly = true)} and Spring Data finders called outside
+ * a transaction) to the replica while it keeps up, and all other work to the primary. Hibernate already runs
+ * read-only transactions with flush mode MANUAL and read-only entities, so they neither dirty-check nor write.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.jdbc-url")
+public class ReadReplicaDataSourceConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+    
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               @Value("${app.datasource.replica-max-lag:5s}") Duration maxLag,
+                                               @Value("${app.datasource.replica-lag-check-interval:2s}") Duration checkInterval,
+                                               @Value("${app.datasource.replica-lag-query:}") String lagQuery) {
+        return new ReplicaLagMonitor(replicaDataSource, maxLag, checkInterval, lagQuery);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor));
+    }
+}
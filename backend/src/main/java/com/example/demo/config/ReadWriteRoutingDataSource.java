@@ -0,0 +1,53 @@
+package com.example.demo.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Sends connections of read-only transactions to the replica and everything else to the primary.
+ * <p>
+ * The read-only flag of the transaction is only known once the transaction has started, so this must sit behind
+ * a LazyConnectionDataSourceProxy that fetches the connection on the first statement. A replica that cannot
+ * hand out a connection is reported to the {@link ReplicaLagMonitor} and the primary is used instead.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    public enum Route { PRIMARY, REPLICA }
+    
+    private final DataSource primary;
+    private final ReplicaLagMonitor replicaLagMonitor;
+    
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor replicaLagMonitor) {
+        this.primary = primary;
+        this.replicaLagMonitor = replicaLagMonitor;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaLagMonitor.isReplicaUsable()
+                ? Route.REPLICA
+                : Route.PRIMARY;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == primary) {
+            return primary.getConnection();
+        }
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            replicaLagMonitor.markUnavailable(e);
+            return primary.getConnection();
+        }
+    }
+}
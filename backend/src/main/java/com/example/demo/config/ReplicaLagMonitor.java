@@ -0,0 +1,145 @@
+package com.example.demo.config;
+
+import com.example.demo.event.DepartmentChangedEvent;
+import com.example.demo.event.EmployeeChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically measures how far the read replica is behind the primary and decides whether read-only
+ * transactions may use it.
+ * <p>
+ * The lag comes from the configured query (a single number of seconds) or, on MySQL, from
+ * Seconds_Behind_Source of SHOW REPLICA STATUS; other databases are only checked for reachability.
+ * A replica that is unreachable, not replicating or further behind than the allowed lag is skipped until
+ * a later check finds it healthy again, so readers fall back to the primary instead of seeing old data.
+ * <p>
+ * Reads also stay on the primary for the allowed lag (plus one check interval) after an employee or
+ * department change. ETags and cached response bodies are bumped when a change commits, and a body built
+ * from the replica in that window could still predate the change and would then be served under the new tag.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final long writeWindowNanos;
+    private final String lagQuery;
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean usable;
+    private volatile long lastWriteNanos;
+    
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, Duration checkInterval, String lagQuery) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.writeWindowNanos = maxLag.plus(checkInterval).toNanos();
+        this.lastWriteNanos = System.nanoTime() - writeWindowNanos;
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        check();
+        
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, checkInterval.toMillis(), checkInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+    
+    public boolean isReplicaUsable() {
+        return usable && System.nanoTime() - lastWriteNanos > writeWindowNanos;
+    }
+    
+    // Plain listeners run when the change is published, before it commits and before the ETags move
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        lastWriteNanos = System.nanoTime();
+    }
+    
+    @EventListener
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        lastWriteNanos = System.nanoTime();
+    }
+    
+    /**
+     * Measure the lag now and update whether the replica is used
+     */
+    public void check() {
+        try (Connection connection = replica.getConnection()) {
+            Long lagSeconds = measureLagSeconds(connection);
+            if (lagSeconds == null) {
+                update(false, "replication is not running");
+            } else if (lagSeconds > maxLag.toSeconds()) {
+                update(false, "lag of " + lagSeconds + "s exceeds " + maxLag.toSeconds() + "s");
+            } else {
+                update(true, "lag of " + lagSeconds + "s");
+            }
+        } catch (SQLException | RuntimeException e) {
+            update(false, "check failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Stop using the replica until the next successful check, after a connection to it failed
+     */
+    public void markUnavailable(Exception cause) {
+        update(false, "connection failed: " + cause.getMessage());
+    }
+    
+    private Long measureLagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (lagQuery != null) {
+                try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                    return resultSet.next() ? nullableLong(resultSet, 1) : null;
+                }
+            }
+            if (connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql")) {
+                try (ResultSet resultSet = statement.executeQuery("SHOW REPLICA STATUS")) {
+                    // No row: the server is not a replica (e.g. a read endpoint that is always current)
+                    return resultSet.next() ? nullableLong(resultSet, "Seconds_Behind_Source") : 0L;
+                }
+            }
+        }
+        if (!connection.isValid(5)) {
+            throw new SQLException("connection is not valid");
+        }
+        return 0L;
+    }
+    
+    private void update(boolean nowUsable, String reason) {
+        if (usable != nowUsable) {
+            if (nowUsable) {
+                log.info("Read replica in use: {}", reason);
+            } else {
+                log.warn("Read replica skipped, reads go to the primary: {}", reason);
+            }
+        }
+        usable = nowUsable;
+    }
+    
+    private static Long nullableLong(ResultSet resultSet, int column) throws SQLException {
+        long value = resultSet.getLong(column);
+        return resultSet.wasNull() ? null : value;
+    }
+    
+    private static Long nullableLong(ResultSet resultSet, String column) throws SQLException {
+        long value = resultSet.getLong(column);
+        return resultSet.wasNull() ? null : value;
+    }
+}
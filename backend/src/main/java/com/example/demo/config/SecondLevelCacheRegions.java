@@ -0,0 +1,99 @@
+package com.example.demo.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Hit/miss statistics and manual eviction for the Hibernate second-level and query cache regions
+ * configured in hibernate-cache.conf.
+ * <p>
+ * Writes through the entity manager keep the regions current on their own. Writes that bypass Hibernate
+ * (plain JDBC) must call {@link #evictQueryRegions()} once committed so cached query results over the
+ * changed tables are not served until they expire.
+ */
+@Slf4j
+@Component
+@ManagedResource(objectName = "com.example.demo:type=Cache,name=SecondLevelCache",
+        description = "Hibernate second-level and query cache regions")
+public class SecondLevelCacheRegions {
+    
+    private final SessionFactory sessionFactory;
+    
+    public SecondLevelCacheRegions(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+    
+    /**
+     * One line per region: hits, misses, puts and hit ratio since startup or the last reset
+     */
+    @ManagedAttribute(description = "Per-region hits, misses, puts and hit ratio")
+    public String[] getRegionStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> format(region, statistics.getCacheRegionStatistics(region)))
+                .toArray(String[]::new);
+    }
+    
+    @ManagedAttribute(description = "Entity lookups served from the second-level cache")
+    public long getSecondLevelCacheHitCount() {
+        return sessionFactory.getStatistics().getSecondLevelCacheHitCount();
+    }
+    
+    @ManagedAttribute(description = "Entity lookups that missed the second-level cache")
+    public long getSecondLevelCacheMissCount() {
+        return sessionFactory.getStatistics().getSecondLevelCacheMissCount();
+    }
+    
+    @ManagedAttribute(description = "Queries answered from the query cache")
+    public long getQueryCacheHitCount() {
+        return sessionFactory.getStatistics().getQueryCacheHitCount();
+    }
+    
+    @ManagedAttribute(description = "Cacheable queries that had to run against the database")
+    public long getQueryCacheMissCount() {
+        return sessionFactory.getStatistics().getQueryCacheMissCount();
+    }
+    
+    /**
+     * Hits, misses and puts of a single region, or null for an unknown region
+     */
+    public CacheRegionStatistics getRegion(String region) {
+        return sessionFactory.getStatistics().getCacheRegionStatistics(region);
+    }
+    
+    @ManagedOperation(description = "Drop all cached query results")
+    public void evictQueryRegions() {
+        sessionFactory.getCache().evictQueryRegions();
+    }
+    
+    @ManagedOperation(description = "Drop all cached entities and query results")
+    public void evictAll() {
+        sessionFactory.getCache().evictAllRegions();
+        log.info("Second-level cache evicted");
+    }
+    
+    @ManagedOperation(description = "Reset hit/miss counters")
+    public void resetStatistics() {
+        sessionFactory.getStatistics().clear();
+    }
+    
+    private static String format(String region, CacheRegionStatistics stats) {
+        if (stats == null) {
+            return region + ": no statistics";
+        }
+        long lookups = stats.getHitCount() + stats.getMissCount();
+        double hitRatio = lookups == 0 ? 0 : (double) stats.getHitCount() / lookups;
+        return String.format("%s: hits=%d, misses=%d, puts=%d, hitRatio=%.2f",
+                region, stats.getHitCount(), stats.getMissCount(), stats.getPutCount(), hitRatio);
+    }
+}
@@ -1,17 +1,26 @@
 package com.example.demo.config;
 
 import com.example.demo.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -19,6 +28,8 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -33,9 +44,20 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * Hashes are stored with an {id} prefix so the algorithm or BCrypt cost can change later.
+     * Legacy hashes without a prefix are still verified as BCrypt, and both they and hashes with
+     * a lower cost than configured are rehashed on the next successful login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.password.bcrypt-strength:10}") int bcryptStrength) {
+        String encodingId = "bcrypt";
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(encodingId, new BCryptPasswordEncoder(bcryptStrength));
+        
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(encodingId, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(bcryptStrength));
+        return passwordEncoder;
     }
 
     @Bean
@@ -50,15 +72,57 @@ public class SecurityConfig {
         return source;
     }
 
+    /**
+     * The Prometheus scrape endpoint takes HTTP Basic with the configured scrape credentials rather than a JWT,
+     * which a scraper could not renew. Only the scrape user is checked, never the users table, so this endpoint
+     * cannot be used to guess application passwords past the login rate limits. Without a password it refuses
+     * every scrape.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricsFilterChain(HttpSecurity http,
+                                                  PasswordEncoder passwordEncoder,
+                                                  @Value("${app.metrics.scrape.username:prometheus}") String username,
+                                                  @Value("${app.metrics.scrape.password:}") String password) throws Exception {
+        DaoAuthenticationProvider scrapeUser = new DaoAuthenticationProvider(new InMemoryUserDetailsManager(
+                User.withUsername(username)
+                        .password(passwordEncoder.encode(password))
+                        .roles("METRICS")
+                        .build()));
+        scrapeUser.setPasswordEncoder(passwordEncoder);
+        
+        http
+                .securityMatcher("/actuator/prometheus")
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(authz -> {
+                    if (password.isEmpty()) {
+                        authz.anyRequest().denyAll();
+                    } else {
+                        authz.anyRequest().hasRole("METRICS");
+                    }
+                })
+                .httpBasic(Customizer.withDefaults())
+                .authenticationManager(new ProviderManager(scrapeUser))
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                );
+
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(authz -> authz
+                        // Streaming responses complete on an async dispatch of an already authorized request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/employees/test").permitAll()
                         .requestMatchers("/api/test/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/flightrecorder", "/actuator/flightrecorder/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
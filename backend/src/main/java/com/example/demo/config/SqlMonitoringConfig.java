@@ -0,0 +1,37 @@
+package com.example.demo.config;
+
+import com.example.demo.jdbc.SqlStatementMonitor;
+import com.example.demo.jdbc.StatementMonitoringDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource (the Hikari pool, or the read/write router when a replica is configured)
+ * so that JPA, JdbcTemplate and Flyway statements all pass through the {@link SqlStatementMonitor}.
+ * Only the bean named dataSource is wrapped, so statements routed to the primary or replica pools are
+ * counted once.
+ */
+@Configuration
+public class SqlMonitoringConfig {
+    
+    @Bean
+    public static BeanPostProcessor statementMonitoringDataSourcePostProcessor(
+            ObjectProvider<SqlStatementMonitor> sqlStatementMonitor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    SqlStatementMonitor monitor = sqlStatementMonitor.getObject();
+                    if (monitor.isEnabled()) {
+                        return new StatementMonitoringDataSource(dataSource, monitor);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.demo.controller;
 
+import com.example.demo.cache.ResourceVersionTracker;
+import com.example.demo.cache.ResponseBodyCache;
 import com.example.demo.dto.ApiResponse;
 import com.example.demo.dto.DepartmentRequest;
 import com.example.demo.dto.DepartmentResponse;
@@ -13,6 +15,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -24,25 +27,38 @@ import java.util.List;
 public class DepartmentController {
     
     private final DepartmentService departmentService;
+    private final ResourceVersionTracker resourceVersionTracker;
+    private final ResponseBodyCache responseBodyCache;
     
     /**
      * Get all departments
      */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<ApiResponse<List<DepartmentResponse>>> getAllDepartments(
+    public ResponseEntity<?> getAllDepartments(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int size,
             @RequestParam(defaultValue = "name") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            WebRequest webRequest) {
+        
+        // Answer 304 before loading and enriching departments when the client's copy is current
+        String etag = resourceVersionTracker.departmentsETag();
+        if (responseBodyCache.checkNotModified(etag, webRequest)) {
+            return null;
+        }
         
         try {
-            List<DepartmentResponse> departments;
-            
-            if (search != null && !search.trim().isEmpty()) {
-                departments = departmentService.searchDepartments(search);
-            } else {
+            // Unchanged lists are served as stored JSON bytes instead of being loaded, enriched and serialized again
+            return responseBodyCache.respond(ResponseBodyCache.DEPARTMENTS, etag, webRequest, () -> {
+                if (search != null && !search.trim().isEmpty()) {
+                    return ApiResponse.success(
+                        departmentService.searchDepartments(search),
+                        "Departments retrieved successfully"
+                    ).withoutTimestamp();
+                }
+                
                 // If pagination is needed (page > 0 or size != 50)
                 if (page > 0 || size != 50) {
                     Sort sort = Sort.by(sortDir.equalsIgnoreCase("desc") ? 
@@ -51,20 +67,18 @@ public class DepartmentController {
                     
                     Page<DepartmentResponse> departmentPage = departmentService.getAllDepartments(pageable);
                     
-                    return ResponseEntity.ok(ApiResponse.success(
+                    return ApiResponse.success(
                         departmentPage.getContent(),
                         "Departments retrieved successfully",
                         createPaginationMeta(departmentPage)
-                    ));
-                } else {
-                    departments = departmentService.getAllDepartments();
+                    ).withoutTimestamp();
                 }
-            }
-            
-            return ResponseEntity.ok(ApiResponse.success(
-                departments, 
-                "Departments retrieved successfully"
-            ));
+                
+                return ApiResponse.success(
+                    departmentService.getAllDepartments(), 
+                    "Departments retrieved successfully"
+                ).withoutTimestamp();
+            });
             
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(
@@ -78,10 +92,16 @@ public class DepartmentController {
      */
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<ApiResponse<DepartmentResponse>> getDepartmentById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<DepartmentResponse>> getDepartmentById(@PathVariable Long id,
+                                                                            WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersionTracker.departmentsETag())) {
+            return null;
+        }
+        
         try {
             DepartmentResponse department = departmentService.getDepartmentById(id);
-            return ResponseEntity.ok(ApiResponse.success(department, "Department retrieved successfully"));
+            return ResponseEntity.ok().cacheControl(ResourceVersionTracker.REVALIDATE)
+                    .body(ApiResponse.success(department, "Department retrieved successfully"));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
@@ -169,11 +189,16 @@ public class DepartmentController {
     @GetMapping("/manager/{managerId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or #managerId == authentication.principal.id")
     public ResponseEntity<ApiResponse<List<DepartmentResponse>>> getDepartmentsByManager(
-            @PathVariable Long managerId) {
+            @PathVariable Long managerId,
+            WebRequest webRequest) {
+        
+        if (webRequest.checkNotModified(resourceVersionTracker.departmentsETag())) {
+            return null;
+        }
         
         try {
             List<DepartmentResponse> departments = departmentService.getDepartmentsByManager(managerId);
-            return ResponseEntity.ok(ApiResponse.success(
+            return ResponseEntity.ok().cacheControl(ResourceVersionTracker.REVALIDATE).body(ApiResponse.success(
                 departments, 
                 "Departments managed by employee retrieved successfully"
             ));
@@ -1,8 +1,14 @@
 package com.example.demo.controller;
 
+import com.example.demo.cache.ResourceVersionTracker;
+import com.example.demo.cache.ResponseBodyCache;
+import com.example.demo.dto.EmployeeCursorPage;
+import com.example.demo.dto.EmployeeImportResult;
 import com.example.demo.dto.EmployeeRequest;
 import com.example.demo.dto.EmployeeResponse;
 import com.example.demo.entity.User;
+import com.example.demo.service.EmployeeExportService;
+import com.example.demo.service.EmployeeImportService;
 import com.example.demo.service.EmployeeService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,12 +16,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.security.access.prepost.PreAuthorize;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,27 +41,36 @@ import java.util.Map;
 public class EmployeeController {
     
     private final EmployeeService employeeService;
+    private final EmployeeExportService employeeExportService;
+    private final EmployeeImportService employeeImportService;
+    private final ResourceVersionTracker resourceVersionTracker;
+    private final ResponseBodyCache responseBodyCache;
     
     @GetMapping
-    public ResponseEntity<List<EmployeeResponse>> getAllEmployees(
+    public ResponseEntity<byte[]> getAllEmployees(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String department,
-            @RequestParam(required = false) Boolean isActive) {
+            @RequestParam(required = false) Boolean isActive,
+            WebRequest webRequest) {
+        
+        // Answer 304 before any loading when the client's copy is current
+        String etag = resourceVersionTracker.employeesETag();
+        if (responseBodyCache.checkNotModified(etag, webRequest)) {
+            return null;
+        }
         
         try {
-            List<EmployeeResponse> employees;
-            
-            if (search != null && !search.trim().isEmpty()) {
-                employees = employeeService.searchEmployees(search.trim());
-            } else if (department != null && !department.trim().isEmpty()) {
-                employees = employeeService.getEmployeesByDepartment(department.trim());
-            } else if (isActive != null) {
-                employees = employeeService.getEmployeesByStatus(isActive);
-            } else {
-                employees = employeeService.getAllEmployees();
-            }
-            
-            return ResponseEntity.ok(employees);
+            // Unchanged lists are served as stored JSON bytes instead of being loaded, mapped and serialized again
+            return responseBodyCache.respond(ResponseBodyCache.EMPLOYEES, etag, webRequest, () -> {
+                if (search != null && !search.trim().isEmpty()) {
+                    return employeeService.searchEmployees(search.trim());
+                } else if (department != null && !department.trim().isEmpty()) {
+                    return employeeService.getEmployeesByDepartment(department.trim());
+                } else if (isActive != null) {
+                    return employeeService.getEmployeesByStatus(isActive);
+                }
+                return employeeService.getAllEmployees();
+            });
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -58,9 +81,28 @@ public class EmployeeController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String cursor,
+            WebRequest webRequest) {
+        
+        if (webRequest.checkNotModified(resourceVersionTracker.employeesETag())) {
+            return null;
+        }
         
         try {
+            // Cursor mode: pass cursor= (empty) for the first page, then the returned nextCursor
+            if (cursor != null) {
+                EmployeeCursorPage cursorPage = employeeService.getEmployeesByCursor(cursor, size, sortBy, sortDir);
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("employees", cursorPage.getEmployees());
+                response.put("nextCursor", cursorPage.getNextCursor());
+                response.put("hasNext", cursorPage.isHasNext());
+                response.put("size", cursorPage.getSize());
+                
+                return ResponseEntity.ok().cacheControl(ResourceVersionTracker.REVALIDATE).body(response);
+            }
+            
             Sort sort = sortDir.equalsIgnoreCase("desc") ? 
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
             
@@ -75,17 +117,74 @@ public class EmployeeController {
             response.put("hasNext", employeePage.hasNext());
             response.put("hasPrevious", employeePage.hasPrevious());
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(ResourceVersionTracker.REVALIDATE).body(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Stream all employees as NDJSON (default) or CSV without building the full list in memory
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        
+        EmployeeExportService.Format exportFormat;
+        try {
+            exportFormat = EmployeeExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        boolean csv = exportFormat == EmployeeExportService.Format.CSV;
+        StreamingResponseBody body = outputStream -> employeeExportService.exportEmployees(exportFormat, outputStream);
+        
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=employees." + (csv ? "csv" : "ndjson"))
+                .body(body);
+    }
+    
+    /**
+     * Bulk create employees from a CSV (header row with EmployeeRequest field names) or JSON array file.
+     * Rows are validated individually; pass resume=true to re-run a partially imported file.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<?> importEmployees(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "false") boolean resume) {
+        
+        Map<String, String> error = new HashMap<>();
+        try (InputStream input = file.getInputStream()) {
+            EmployeeImportResult result = employeeImportService.importEmployees(input, file.getOriginalFilename(), resume);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (IOException e) {
+            error.put("error", "Could not read import file");
+            return ResponseEntity.badRequest().body(error);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<EmployeeResponse> getEmployeeById(@PathVariable Long id) {
+    public ResponseEntity<EmployeeResponse> getEmployeeById(@PathVariable Long id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersionTracker.employeesETag())) {
+            return null;
+        }
+        
         try {
             EmployeeResponse employee = employeeService.getEmployeeById(id);
-            return ResponseEntity.ok(employee);
+            return ResponseEntity.ok().cacheControl(ResourceVersionTracker.REVALIDATE).body(employee);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -94,10 +193,14 @@ public class EmployeeController {
     }
     
     @GetMapping("/email/{email}")
-    public ResponseEntity<EmployeeResponse> getEmployeeByEmail(@PathVariable String email) {
+    public ResponseEntity<EmployeeResponse> getEmployeeByEmail(@PathVariable String email, WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersionTracker.employeesETag())) {
+            return null;
+        }
+        
         try {
             EmployeeResponse employee = employeeService.getEmployeeByEmail(email);
-            return ResponseEntity.ok(employee);
+            return ResponseEntity.ok().cacheControl(ResourceVersionTracker.REVALIDATE).body(employee);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -159,23 +262,32 @@ public class EmployeeController {
     }
     
     @GetMapping("/departments")
-    public ResponseEntity<List<String>> getAllDepartments() {
+    public ResponseEntity<List<String>> getAllDepartments(WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersionTracker.departmentNamesETag())) {
+            return null;
+        }
+        
         try {
             List<String> departments = employeeService.getAllDepartments();
-            return ResponseEntity.ok(departments);
+            return ResponseEntity.ok().cacheControl(ResourceVersionTracker.REVALIDATE).body(departments);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
     
     @GetMapping("/departments/{department}/count")
-    public ResponseEntity<Map<String, Object>> getDepartmentEmployeeCount(@PathVariable String department) {
+    public ResponseEntity<Map<String, Object>> getDepartmentEmployeeCount(@PathVariable String department,
+                                                                          WebRequest webRequest) {
+        if (webRequest.checkNotModified(resourceVersionTracker.employeesETag())) {
+            return null;
+        }
+        
         try {
             Long count = employeeService.getEmployeeCountByDepartment(department);
             Map<String, Object> response = new HashMap<>();
             response.put("department", department);
             response.put("employeeCount", count);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(ResourceVersionTracker.REVALIDATE).body(response);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
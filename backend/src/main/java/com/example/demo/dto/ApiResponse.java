@@ -43,4 +43,11 @@ public class ApiResponse<T> {
     public static <T> ApiResponse<T> error(String message, T data) {
         return new ApiResponse<>(false, message, data, null, LocalDateTime.now());
     }
+    
+    // Drops the timestamp from responses whose serialized body is stored and served again until the next write;
+    // a stored timestamp would be stale on every later hit and the body would no longer match what the tag names
+    public ApiResponse<T> withoutTimestamp() {
+        this.timestamp = null;
+        return this;
+    }
 }
@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeCursorPage {
+    
+    private List<EmployeeResponse> employees;
+    private String nextCursor; // null when there are no more pages
+    private boolean hasNext;
+    private int size;
+}
@@ -0,0 +1,29 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeImportResult {
+    
+    private int total;
+    private int imported;
+    private int skipped; // rows already present when resuming a partially applied file
+    private int failed;
+    private List<RowError> errors = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row; // 1-based record number in the file, excluding the CSV header
+        private String email;
+        private String message;
+    }
+}
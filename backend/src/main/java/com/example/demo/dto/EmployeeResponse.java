@@ -28,7 +28,27 @@ public class EmployeeResponse {
     private User.Role role;
     private String profile;
     
+    /**
+     * List row built by the projection queries in UserRepository, which select neither the password
+     * hash nor the profile text. Name and avatar are derived the same way as in {@link #fromUser}.
+     */
+    public EmployeeResponse(Long id, String firstName, String lastName, String position, String email,
+                            String department, Boolean isActive, String avatarUrl, String phoneNumber,
+                            LocalDateTime hireDate, LocalDateTime createdAt, LocalDateTime updatedAt,
+                            User.Role role) {
+        this(id, User.fullName(firstName, lastName, email), firstName, lastName, position, email, department,
+                isActive, User.defaultAvatarUrl(id, avatarUrl), phoneNumber, hireDate, createdAt, updatedAt,
+                role, null);
+    }
+    
+    /**
+     * Response without the profile, which is stored apart from the user (see UserProfileService)
+     */
     public static EmployeeResponse fromUser(User user) {
+        return fromUser(user, null);
+    }
+    
+    public static EmployeeResponse fromUser(User user, String profile) {
         return new EmployeeResponse(
             user.getId(),
             user.getFullName(),
@@ -44,7 +64,7 @@ public class EmployeeResponse {
             user.getCreatedAt(),
             user.getUpdatedAt(),
             user.getRole(),
-            user.getProfile()
+            profile
         );
     }
 }
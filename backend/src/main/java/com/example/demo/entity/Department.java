@@ -6,6 +6,9 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Generated;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,13 +16,16 @@ import java.util.List;
 
 @Entity
 @Table(name = "departments")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "departments")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Department {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "departments_seq")
+    @SequenceGenerator(name = "departments_seq", sequenceName = "departments_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -27,6 +33,11 @@ public class Department {
     @Size(max = 100, message = "Department name must not exceed 100 characters")
     private String name;
     
+    // UPPER(name), computed by the database and indexed for case-insensitive lookups (db/migration V2)
+    @Generated
+    @Column(name = "name_key", insertable = false, updatable = false)
+    private String nameKey;
+    
     @Column(columnDefinition = "TEXT")
     @Size(max = 500, message = "Description must not exceed 500 characters")
     private String description;
@@ -7,6 +7,8 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,14 +18,22 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // Serves employee counts and filters per department; also the index MySQL needs for the foreign key
+        @Index(name = "idx_users_department_id_role", columnList = "department_id, role")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User implements UserDetails {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Blocks of ids from a sequence (a table on MySQL, see db/migration V3) so that inserts can be batched;
+    // the pooled-lo optimizer is selected in application.properties
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -54,9 +64,14 @@ public class User implements UserDetails {
     @Column(name = "position")
     private String position;
     
+    // Department name as the API shows it; kept in sync with departments.name on rename
     @Column(name = "department")
     private String department;
     
+    // References departments.id; the foreign key is created by the migrations (fk_users_department)
+    @Column(name = "department_id")
+    private Long departmentId;
+    
     @Column(name = "phone_number")
     private String phoneNumber;
     
@@ -65,9 +80,6 @@ public class User implements UserDetails {
     
     @Column(name = "avatar_url")
     private String avatarUrl;
-    
-    @Column(name = "profile", columnDefinition = "TEXT")
-    private String profile;
 
     @PrePersist
     protected void onCreate() {
@@ -125,6 +137,13 @@ public class User implements UserDetails {
     
     // Helper methods for employee functionality
     public String getFullName() {
+        return fullName(firstName, lastName, email);
+    }
+    
+    /**
+     * Display name from name parts, shared with projection queries that do not load the entity
+     */
+    public static String fullName(String firstName, String lastName, String email) {
         if (firstName != null && lastName != null) {
             return firstName + " " + lastName;
         } else if (firstName != null) {
@@ -150,6 +169,10 @@ public class User implements UserDetails {
     }
     
     public String getDefaultAvatarUrl() {
+        return defaultAvatarUrl(id, avatarUrl);
+    }
+    
+    public static String defaultAvatarUrl(Long id, String avatarUrl) {
         if (avatarUrl != null && !avatarUrl.trim().isEmpty()) {
             return avatarUrl;
         }
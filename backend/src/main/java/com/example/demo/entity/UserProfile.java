@@ -0,0 +1,41 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Free-text profile of a user, kept out of the users row so that login, token authentication and list
+ * queries never read it. Content above the configured threshold is stored gzip-compressed; see
+ * {@link com.example.demo.service.UserProfileService}, which is the only place that encodes and decodes it.
+ */
+@Entity
+@Table(name = "user_profiles")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfile {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Lob
+    @Column(name = "content", nullable = false, length = 65535)
+    private byte[] content;
+    
+    @Column(name = "compressed", nullable = false)
+    private Boolean compressed = false;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.event;
+
+import com.example.demo.entity.Department;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by DepartmentService whenever a department is created, updated or (soft) deleted.
+ * Listeners that keep derived state (search index, caches) should react after commit.
+ */
+@Getter
+@AllArgsConstructor
+public class DepartmentChangedEvent {
+    
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+    
+    private final Type type;
+    private final Department department;
+    // The name before an update that renamed the department, null otherwise. A rename also changes the
+    // department name stored on its employees, so listeners refresh employee-derived state for it in bulk.
+    private final String previousName;
+    
+    public DepartmentChangedEvent(Type type, Department department) {
+        this(type, department, null);
+    }
+    
+    public boolean isRename() {
+        return previousName != null;
+    }
+}
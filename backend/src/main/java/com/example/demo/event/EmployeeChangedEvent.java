@@ -0,0 +1,27 @@
+package com.example.demo.event;
+
+import com.example.demo.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by EmployeeService whenever an employee is created, updated or deleted.
+ * Listeners that keep derived state (search index, caches) should react after commit.
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeChangedEvent {
+    
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+    
+    private final Type type;
+    private final User employee;
+    // The email before an update that changed it, so state keyed by the old email can be dropped; null otherwise
+    private final String previousEmail;
+    
+    public EmployeeChangedEvent(Type type, User employee) {
+        this(type, employee, null);
+    }
+}
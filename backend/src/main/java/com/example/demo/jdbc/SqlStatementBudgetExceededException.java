@@ -0,0 +1,12 @@
+package com.example.demo.jdbc;
+
+/**
+ * Thrown instead of executing a statement when a request has used up its SQL statement budget
+ * and the budget action is FAIL
+ */
+public class SqlStatementBudgetExceededException extends RuntimeException {
+    
+    public SqlStatementBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.jdbc;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Scopes {@link SqlStatementMonitor} tallies to HTTP requests. Runs ahead of the security filters
+ * so statements issued during authentication count towards the request too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+    
+    private final SqlStatementMonitor sqlStatementMonitor;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !sqlStatementMonitor.isEnabled();
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        sqlStatementMonitor.beginRequest(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            sqlStatementMonitor.endRequest();
+        }
+    }
+}
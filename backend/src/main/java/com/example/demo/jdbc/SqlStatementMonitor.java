@@ -0,0 +1,179 @@
+package com.example.demo.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements and database time of each HTTP request and logs slow statements with their bind values.
+ * <p>
+ * Statements are reported by {@link StatementMonitoringDataSource}; {@link SqlStatementBudgetFilter} opens and closes
+ * the per-request tally on the request thread. A request that runs more statements than the budget is reported with
+ * the statement it repeated most, which is usually an N+1 loop. With the FAIL action the statement over the budget is
+ * not executed and {@link SqlStatementBudgetExceededException} is thrown instead. Statements outside a request
+ * (startup, background work, the async part of streaming responses) are only checked against the slow threshold.
+ */
+@Slf4j
+@Component
+public class SqlStatementMonitor {
+    
+    public enum BudgetAction { WARN, FAIL }
+    
+    private static final int MAX_BIND_VALUE_LENGTH = 100;
+    
+    private final ThreadLocal<RequestStatements> currentRequest = new ThreadLocal<>();
+    private final boolean enabled;
+    private final long slowThresholdNanos;
+    private final int statementBudget;
+    private final BudgetAction budgetAction;
+    
+    public SqlStatementMonitor(@Value("${app.sql.monitor.enabled:true}") boolean enabled,
+                               @Value("${app.sql.slow-threshold:200ms}") Duration slowThreshold,
+                               @Value("${app.sql.statement-budget:0}") int statementBudget,
+                               @Value("${app.sql.budget-action:WARN}") BudgetAction budgetAction) {
+        this.enabled = enabled;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.statementBudget = statementBudget;
+        this.budgetAction = budgetAction;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Start counting the statements of a request on the current thread
+     */
+    public void beginRequest(String request) {
+        currentRequest.set(new RequestStatements(request));
+    }
+    
+    /**
+     * Stop counting for the current thread and report the request's totals
+     */
+    public void endRequest() {
+        RequestStatements statements = currentRequest.get();
+        currentRequest.remove();
+        if (statements == null) {
+            return;
+        }
+        
+        if (statementBudget > 0 && statements.count > statementBudget) {
+            log.warn("{} ran {} SQL statements in {} ms, over the budget of {}; most repeated ({}x): {}",
+                    statements.request, statements.count, toMillis(statements.totalNanos), statementBudget,
+                    statements.mostRepeatedCount(), statements.mostRepeatedSql());
+        } else if (log.isDebugEnabled()) {
+            log.debug("{} ran {} SQL statements in {} ms",
+                    statements.request, statements.count, toMillis(statements.totalNanos));
+        }
+    }
+    
+    /**
+     * Count a statement about to be executed against the current request's budget
+     *
+     * @throws SqlStatementBudgetExceededException if the budget is exceeded and the action is FAIL
+     */
+    void beforeStatement(String sql) {
+        RequestStatements statements = currentRequest.get();
+        if (statements == null) {
+            return;
+        }
+        
+        statements.count(sql);
+        if (budgetAction == BudgetAction.FAIL && statementBudget > 0 && statements.count > statementBudget) {
+            throw new SqlStatementBudgetExceededException(statements.request + " exceeded the budget of "
+                    + statementBudget + " SQL statements; most repeated (" + statements.mostRepeatedCount()
+                    + "x): " + statements.mostRepeatedSql());
+        }
+    }
+    
+    /**
+     * Add an executed statement's time to the current request and log it when slow
+     *
+     * @param bindValues parameter index to value, empty for plain statements
+     * @param batchSize  number of parameter sets sent in one batch, 0 when not batched
+     */
+    void afterStatement(String sql, Map<Integer, Object> bindValues, int batchSize, long elapsedNanos) {
+        RequestStatements statements = currentRequest.get();
+        if (statements != null) {
+            statements.totalNanos += elapsedNanos;
+        }
+        
+        if (elapsedNanos >= slowThresholdNanos) {
+            log.warn("Slow SQL statement ({} ms{}{}): {} {}",
+                    toMillis(elapsedNanos),
+                    batchSize > 0 ? ", batch of " + batchSize : "",
+                    statements != null ? ", " + statements.request : "",
+                    sql, formatBindValues(bindValues));
+        } else if (log.isTraceEnabled()) {
+            log.trace("SQL statement ({} ms): {} {}", toMillis(elapsedNanos), sql, formatBindValues(bindValues));
+        }
+    }
+    
+    private static String formatBindValues(Map<Integer, Object> bindValues) {
+        if (bindValues.isEmpty()) {
+            return "";
+        }
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        bindValues.forEach((index, value) -> joiner.add(index + "=" + formatBindValue(value)));
+        return joiner.toString();
+    }
+    
+    private static String formatBindValue(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        if (value instanceof String text) {
+            return "'" + (text.length() > MAX_BIND_VALUE_LENGTH
+                    ? text.substring(0, MAX_BIND_VALUE_LENGTH) + "...(" + text.length() + " chars)"
+                    : text) + "'";
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof java.util.Date
+                || value instanceof java.time.temporal.Temporal || value instanceof Enum<?>) {
+            return value.toString();
+        }
+        // Streams, readers and LOBs are not read for logging
+        return "<" + value.getClass().getSimpleName() + ">";
+    }
+    
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+    
+    private static class RequestStatements {
+        
+        private final String request;
+        private final Map<String, Integer> countsBySql = new HashMap<>();
+        private int count;
+        private long totalNanos;
+        
+        RequestStatements(String request) {
+            this.request = request;
+        }
+        
+        void count(String sql) {
+            count++;
+            countsBySql.merge(sql, 1, Integer::sum);
+        }
+        
+        String mostRepeatedSql() {
+            return countsBySql.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(Map.Entry::getKey)
+                    .orElse(null);
+        }
+        
+        int mostRepeatedCount() {
+            return countsBySql.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        }
+    }
+}
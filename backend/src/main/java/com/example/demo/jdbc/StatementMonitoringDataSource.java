@@ -0,0 +1,147 @@
+package com.example.demo.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reports every statement executed through this DataSource to the {@link SqlStatementMonitor}.
+ * <p>
+ * Connections and statements are wrapped in JDK proxies. Prepared statements record their bind values by
+ * parameter index as they are set; a batch is timed as one statement and logged with the values of its
+ * first parameter set. Everything else is passed straight to the driver.
+ */
+public class StatementMonitoringDataSource extends DelegatingDataSource implements AutoCloseable {
+    
+    private final SqlStatementMonitor monitor;
+    
+    public StatementMonitoringDataSource(DataSource targetDataSource, SqlStatementMonitor monitor) {
+        super(targetDataSource);
+        this.monitor = monitor;
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return monitored(super.getConnection());
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return monitored(super.getConnection(username, password));
+    }
+    
+    // The wrapper replaces the pool bean, so it has to pass on the pool's shutdown
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+    
+    private Connection monitored(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+    
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private class ConnectionHandler implements InvocationHandler {
+        
+        private final Connection target;
+        
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(target, method, args);
+            if (result instanceof Statement statement) {
+                // prepareStatement and prepareCall take the SQL up front, createStatement gets it on execute
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[]{method.getReturnType()}, new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+    
+    private class StatementHandler implements InvocationHandler {
+        
+        private final Statement target;
+        private final String preparedSql;
+        private final Map<Integer, Object> bindValues = new TreeMap<>();
+        private Map<Integer, Object> firstBatchValues = Map.of();
+        private String lastBatchSql;
+        private int batchSize;
+        
+        StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args, name.endsWith("Batch"));
+            }
+            
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bindValues.put(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                bindValues.clear();
+            } else if (name.equals("addBatch")) {
+                if (batchSize == 0) {
+                    firstBatchValues = new TreeMap<>(bindValues);
+                }
+                if (args != null && args.length == 1) {
+                    lastBatchSql = (String) args[0];
+                }
+                batchSize++;
+            } else if (name.equals("clearBatch")) {
+                resetBatch();
+            }
+            return invokeTarget(target, method, args);
+        }
+        
+        private Object execute(Method method, Object[] args, boolean batch) throws Throwable {
+            String sql = args != null && args.length > 0 && args[0] instanceof String statementSql
+                    ? statementSql
+                    : preparedSql != null ? preparedSql : lastBatchSql;
+            monitor.beforeStatement(sql);
+            
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(target, method, args);
+            } finally {
+                monitor.afterStatement(sql, batch ? firstBatchValues : bindValues, batch ? batchSize : 0,
+                        System.nanoTime() - start);
+                if (batch) {
+                    resetBatch();
+                }
+            }
+        }
+        
+        private void resetBatch() {
+            firstBatchValues = Map.of();
+            lastBatchSql = null;
+            batchSize = 0;
+        }
+    }
+}
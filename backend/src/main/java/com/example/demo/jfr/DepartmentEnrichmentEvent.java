@@ -0,0 +1,30 @@
+package com.example.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One phase of adding employee counts and managers to a list of departments
+ */
+@Name("com.example.demo.DepartmentEnrichment")
+@Label("Department Enrichment")
+@Category({"HR Management", "Service"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class DepartmentEnrichmentEvent extends jdk.jfr.Event {
+    
+    public static final String COUNTS = "employee-counts";
+    public static final String MANAGERS = "managers";
+    public static final String MAPPING = "mapping";
+    
+    @Label("Phase")
+    @Description("employee-counts, managers or mapping")
+    public String phase;
+    
+    @Label("Department Count")
+    public int departmentCount;
+}
@@ -0,0 +1,109 @@
+package com.example.demo.jfr;
+
+import com.example.demo.dto.EmployeeCursorPage;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+/**
+ * Emits {@link ServiceCallEvent} for EmployeeService and DepartmentService and {@link RepositoryCallEvent} for the
+ * Spring Data repositories. While no recording has the events enabled, the advice only checks that and proceeds.
+ */
+@Aspect
+@Component
+public class FlightRecorderAspect {
+    
+    // Repository proxies implement the application interface next to the Spring Data ones; resolved once per proxy class
+    private static final ClassValue<String> REPOSITORY_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> proxyClass) {
+            return Arrays.stream(proxyClass.getInterfaces())
+                    .filter(Repository.class::isAssignableFrom)
+                    .filter(type -> type.getName().startsWith("com.example.demo."))
+                    .map(Class::getSimpleName)
+                    .findFirst()
+                    .orElse(proxyClass.getSimpleName());
+        }
+    };
+    
+    @Around("execution(public * com.example.demo.service.EmployeeService.*(..))"
+            + " || execution(public * com.example.demo.service.DepartmentService.*(..))")
+    public Object recordServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        ServiceCallEvent event = new ServiceCallEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        
+        event.begin();
+        try {
+            Object result = joinPoint.proceed();
+            event.entityCount = entityCount(result);
+            return result;
+        } catch (Throwable e) {
+            event.failed = true;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.service = AopProxyUtils.ultimateTargetClass(joinPoint.getTarget()).getSimpleName();
+                event.method = joinPoint.getSignature().getName();
+                event.commit();
+            }
+        }
+    }
+    
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object recordRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        
+        event.begin();
+        try {
+            Object result = joinPoint.proceed();
+            event.entityCount = entityCount(result);
+            return result;
+        } catch (Throwable e) {
+            event.failed = true;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.repository = REPOSITORY_NAMES.get(joinPoint.getThis().getClass());
+                event.method = joinPoint.getSignature().getName();
+                event.commit();
+            }
+        }
+    }
+    
+    private static int entityCount(Object result) {
+        // Streams are consumed after the call returns, so their size is unknown here
+        if (result == null || result instanceof Number || result instanceof Boolean || result instanceof String
+                || result instanceof BaseStream<?, ?>) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof EmployeeCursorPage page) {
+            return page.getEmployees() != null ? page.getEmployees().size() : 0;
+        }
+        return 1;
+    }
+}
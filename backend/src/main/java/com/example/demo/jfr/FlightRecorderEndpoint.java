@@ -0,0 +1,50 @@
+package com.example.demo.jfr;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * /actuator/flightrecorder: GET shows the recordings; POST .../dump writes the continuous recording to a file,
+ * POST .../start (optional body {"duration": "5m"}) starts a profiling recording and POST .../stop ends it early.
+ * Files are written on the server, to the dump directory.
+ */
+@Component
+@Endpoint(id = "flightrecorder")
+@RequiredArgsConstructor
+public class FlightRecorderEndpoint {
+    
+    private final FlightRecordingManager flightRecordingManager;
+    
+    @ReadOperation
+    public Map<String, Object> recordings() {
+        return flightRecordingManager.status();
+    }
+    
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> control(@Selector String action, @Nullable Duration duration)
+            throws Exception {
+        try {
+            Path file = switch (action) {
+                case "dump" -> flightRecordingManager.dump();
+                case "start" -> flightRecordingManager.startProfile(duration);
+                case "stop" -> flightRecordingManager.stopProfile();
+                default -> throw new InvalidEndpointRequestException("Unknown action: " + action,
+                        "Unknown action, expected dump, start or stop");
+            };
+            return new WebEndpointResponse<>(Map.of("file", file.toString()));
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(Map.of("error", e.getMessage()), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.demo.jfr;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Owns the application's flight recordings.
+ * <p>
+ * A continuous recording with the JDK's low-overhead "default" settings runs from startup and keeps the last
+ * max-age / max-size of data on disk, so a latency spike can be explained after the fact by dumping it. A shorter
+ * recording with the more detailed "profile" settings can be started on demand. Dumps and finished profiling
+ * recordings are written to the dump directory.
+ */
+@Slf4j
+@Component
+public class FlightRecordingManager {
+    
+    public static final String CONTINUOUS_RECORDING = "hr-continuous";
+    public static final String PROFILE_RECORDING = "hr-profile";
+    
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    
+    private final boolean continuousEnabled;
+    private final Duration maxAge;
+    private final DataSize maxSize;
+    private final Path dumpDirectory;
+    private final Duration defaultProfileDuration;
+    
+    private Recording continuous;
+    private Recording profile;
+    
+    public FlightRecordingManager(@Value("${app.jfr.continuous.enabled:true}") boolean continuousEnabled,
+                                  @Value("${app.jfr.continuous.max-age:30m}") Duration maxAge,
+                                  @Value("${app.jfr.continuous.max-size:250MB}") DataSize maxSize,
+                                  @Value("${app.jfr.dump-directory:${java.io.tmpdir}/hr-recordings}") Path dumpDirectory,
+                                  @Value("${app.jfr.profile.default-duration:60s}") Duration defaultProfileDuration) {
+        this.continuousEnabled = continuousEnabled;
+        this.maxAge = maxAge;
+        this.maxSize = maxSize;
+        this.dumpDirectory = dumpDirectory;
+        this.defaultProfileDuration = defaultProfileDuration;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void startContinuousRecording() throws IOException, ParseException {
+        if (!continuousEnabled || continuous != null || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        
+        Recording recording = new Recording(Configuration.getConfiguration("default"));
+        recording.setName(CONTINUOUS_RECORDING);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.start();
+        continuous = recording;
+        log.info("Continuous flight recording started, keeping up to {} / {}", maxAge, maxSize);
+    }
+    
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (profile != null) {
+            profile.close();
+        }
+        if (continuous != null) {
+            continuous.close();
+        }
+    }
+    
+    /**
+     * Write the data of the continuous recording, or a snapshot of all running recordings when it is not running,
+     * to a new file in the dump directory
+     *
+     * @throws IllegalStateException if nothing is being recorded
+     */
+    public synchronized Path dump() throws IOException {
+        if (continuous != null && continuous.getState() == RecordingState.RUNNING) {
+            Path file = newFile("dump");
+            continuous.dump(file);
+            log.info("Flight recording dumped to {}", file);
+            return file;
+        }
+        
+        boolean recording = FlightRecorder.isAvailable() && FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .anyMatch(running -> running.getState() == RecordingState.RUNNING);
+        if (!recording) {
+            throw new IllegalStateException("No recording is running; enable app.jfr.continuous or start one");
+        }
+        Path file = newFile("dump");
+        try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+            snapshot.dump(file);
+        }
+        log.info("Flight recording dumped to {}", file);
+        return file;
+    }
+    
+    /**
+     * Start a recording with the "profile" settings that writes its file to the dump directory when it ends
+     *
+     * @param duration how long to record, or null for the configured default
+     * @return the file the recording will be written to
+     * @throws IllegalStateException if a profiling recording is already running
+     */
+    public synchronized Path startProfile(Duration duration) throws IOException, ParseException {
+        if (isProfiling()) {
+            throw new IllegalStateException("A profiling recording is already running");
+        }
+        
+        Path file = newFile("profile");
+        Recording recording = new Recording(Configuration.getConfiguration("profile"));
+        recording.setName(PROFILE_RECORDING);
+        recording.setToDisk(true);
+        recording.setDuration(duration != null ? duration : defaultProfileDuration);
+        recording.setDestination(file);
+        recording.start();
+        profile = recording;
+        log.info("Profiling recording started for {}, writing to {}", recording.getDuration(), file);
+        return file;
+    }
+    
+    /**
+     * Stop the profiling recording early; its file is written on stop
+     *
+     * @throws IllegalStateException if no profiling recording is running
+     */
+    public synchronized Path stopProfile() {
+        if (!isProfiling()) {
+            throw new IllegalStateException("No profiling recording is running");
+        }
+        profile.stop();
+        return profile.getDestination();
+    }
+    
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("available", FlightRecorder.isAvailable());
+        status.put("dumpDirectory", dumpDirectory.toString());
+        status.put(CONTINUOUS_RECORDING, describe(continuous));
+        status.put(PROFILE_RECORDING, describe(profile));
+        return status;
+    }
+    
+    private boolean isProfiling() {
+        return profile != null && profile.getState() == RecordingState.RUNNING;
+    }
+    
+    private Path newFile(String kind) throws IOException {
+        Files.createDirectories(dumpDirectory);
+        return dumpDirectory.resolve("hr-" + kind + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+    }
+    
+    private static Map<String, Object> describe(Recording recording) {
+        if (recording == null) {
+            return Map.of("state", "NOT_STARTED");
+        }
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("state", recording.getState().name());
+        description.put("startTime", String.valueOf(recording.getStartTime()));
+        description.put("size", recording.getSize());
+        if (recording.getDestination() != null) {
+            description.put("destination", recording.getDestination().toString());
+        }
+        return description;
+    }
+}
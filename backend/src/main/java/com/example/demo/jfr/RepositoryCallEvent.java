@@ -0,0 +1,32 @@
+package com.example.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Spring Data repository method, recorded by {@link FlightRecorderAspect}
+ */
+@Name("com.example.demo.RepositoryCall")
+@Label("Repository Call")
+@Category({"HR Management", "Repository"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class RepositoryCallEvent extends jdk.jfr.Event {
+    
+    @Label("Repository")
+    public String repository;
+    
+    @Label("Method")
+    public String method;
+    
+    @Label("Entity Count")
+    @Description("Number of rows or entities returned, 0 for counts, updates and void methods")
+    public int entityCount;
+    
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,28 @@
+package com.example.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Bearer token verification and principal resolution in the JWT filter, for requests that carry a token
+ */
+@Name("com.example.demo.RequestAuthentication")
+@Label("Request Authentication")
+@Category({"HR Management", "Security"})
+@Description("JWT parse/verify and principal resolution of one request")
+@StackTrace(false)
+@Threshold("1 ms")
+public class RequestAuthenticationEvent extends jdk.jfr.Event {
+    
+    @Label("Outcome")
+    @Description("authenticated, rejected (invalid or expired token) or unknown-user")
+    public String outcome;
+    
+    @Label("Principal Source")
+    @Description("claims, cache or database")
+    public String principalSource;
+}
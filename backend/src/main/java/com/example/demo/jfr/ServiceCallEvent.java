@@ -0,0 +1,32 @@
+package com.example.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Public method of EmployeeService or DepartmentService, recorded by {@link FlightRecorderAspect}
+ */
+@Name("com.example.demo.ServiceCall")
+@Label("Service Call")
+@Category({"HR Management", "Service"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class ServiceCallEvent extends jdk.jfr.Event {
+    
+    @Label("Service")
+    public String service;
+    
+    @Label("Method")
+    public String method;
+    
+    @Label("Entity Count")
+    @Description("Number of entities or DTOs returned, 0 for counts and void methods")
+    public int entityCount;
+    
+    @Label("Failed")
+    public boolean failed;
+}
@@ -0,0 +1,24 @@
+package com.example.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Database lookup of a user by email in CustomUserDetailsService
+ */
+@Name("com.example.demo.UserLoad")
+@Label("User Load")
+@Category({"HR Management", "Security"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class UserLoadEvent extends jdk.jfr.Event {
+    
+    @Label("Email")
+    public String email;
+    
+    @Label("Found")
+    public boolean found;
+}
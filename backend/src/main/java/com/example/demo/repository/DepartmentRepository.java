@@ -1,26 +1,44 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Department;
+import com.example.demo.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
     
-    // Find department by name (case insensitive)
-    Optional<Department> findByNameIgnoreCase(String name);
+    // Find department by name (case insensitive, over the indexed name_key column)
+    @Query("SELECT d FROM Department d WHERE d.nameKey = UPPER(:name)")
+    Optional<Department> findByNameIgnoreCase(@Param("name") String name);
     
-    // Check if department with name exists (case insensitive)
-    boolean existsByNameIgnoreCase(String name);
+    // Check if department with name exists (case insensitive, over the indexed name_key column)
+    @Query("SELECT COUNT(d) > 0 FROM Department d WHERE d.nameKey = UPPER(:name)")
+    boolean existsByNameIgnoreCase(@Param("name") String name);
     
-    // Find active departments
+    // Find active departments (result ids held in the query cache until the departments table changes)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Department> findByIsActiveTrue();
     
+    // Page of departments, cached like the full list
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Page<Department> findAll(Pageable pageable);
+    
+    // Batch of departments after the given id, used to build the search index
+    List<Department> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
     // Find departments by manager ID
     List<Department> findByManagerId(Long managerId);
     
@@ -30,8 +48,12 @@ public interface DepartmentRepository extends JpaRepository<Department, Long> {
            "LOWER(d.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<Department> searchDepartments(@Param("searchTerm") String searchTerm);
     
-    // Find departments with employee counts
-    @Query("SELECT d.id, COUNT(u.id) FROM Department d LEFT JOIN User u ON u.department = d.name " +
-           "WHERE d.isActive = true GROUP BY d.id")
-    List<Object[]> findDepartmentEmployeeCounts();
+    // Find employee counts for a batch of departments in a single grouped query over the
+    // (department_id, role) index; departments without employees have no row
+    // (cached until the users table changes)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT u.departmentId, COUNT(u.id) FROM User u " +
+           "WHERE u.role = :role AND u.departmentId IN :departmentIds GROUP BY u.departmentId")
+    List<Object[]> findDepartmentEmployeeCounts(@Param("role") User.Role role,
+                                                @Param("departmentIds") Collection<Long> departmentIds);
 }
@@ -1,41 +1,105 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.EmployeeResponse;
 import com.example.demo.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+    
+    /**
+     * Select clause for employee list rows: only the columns EmployeeResponse needs, so list queries
+     * neither read the password hash and the TEXT profile nor put entities in the persistence context
+     */
+    String EMPLOYEE_LIST_ROW = "new com.example.demo.dto.EmployeeResponse(u.id, u.firstName, u.lastName, " +
+            "u.position, u.email, u.department, u.isActive, u.avatarUrl, u.phoneNumber, u.hireDate, " +
+            "u.createdAt, u.updatedAt, u.role)";
     
     Optional<User> findByEmail(String email);
     
     boolean existsByEmail(String email);
     
+    // Set-based duplicate check for bulk writes
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    // Touches only the hash so a concurrent profile edit is not overwritten by a rehash on login
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
+    
     boolean existsByRole(User.Role role);
     
     // Employee-specific queries
-    List<User> findByRole(User.Role role);
-    
     List<User> findByDepartment(String department);
     
-    List<User> findByRoleAndIsActive(User.Role role, Boolean isActive);
+    // Forward-only stream of list rows for exports: fetched from the driver in chunks, and as no entities are
+    // hydrated nothing piles up in the persistence context or the "users" second-level cache region
+    @Query("SELECT " + EMPLOYEE_LIST_ROW + " FROM User u WHERE u.role = :role ORDER BY u.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<EmployeeResponse> streamListRowsByRole(@Param("role") User.Role role);
+    
+    // Employee list rows (see EMPLOYEE_LIST_ROW)
+    @Query("SELECT " + EMPLOYEE_LIST_ROW + " FROM User u WHERE u.role = :role ORDER BY u.id")
+    List<EmployeeResponse> findListRowsByRole(@Param("role") User.Role role);
+    
+    @Query(value = "SELECT " + EMPLOYEE_LIST_ROW + " FROM User u WHERE u.role = :role",
+           countQuery = "SELECT COUNT(u) FROM User u WHERE u.role = :role")
+    Page<EmployeeResponse> findListRowsByRole(@Param("role") User.Role role, Pageable pageable);
     
-    @Query("SELECT u FROM User u WHERE u.role = :role AND (" +
+    // Department filters look the name up once and then match on the indexed department_id
+    @Query("SELECT " + EMPLOYEE_LIST_ROW + " FROM User u JOIN Department d ON d.id = u.departmentId " +
+           "WHERE u.role = :role AND d.name = :department ORDER BY u.id")
+    List<EmployeeResponse> findListRowsByRoleAndDepartment(@Param("role") User.Role role,
+                                                           @Param("department") String department);
+    
+    @Query("SELECT " + EMPLOYEE_LIST_ROW + " FROM User u WHERE u.role = :role AND u.isActive = :isActive ORDER BY u.id")
+    List<EmployeeResponse> findListRowsByRoleAndIsActive(@Param("role") User.Role role,
+                                                         @Param("isActive") Boolean isActive);
+    
+    @Query("SELECT " + EMPLOYEE_LIST_ROW + " FROM User u WHERE u.role = :role AND u.id IN :ids")
+    List<EmployeeResponse> findListRowsByRoleAndIdIn(@Param("role") User.Role role, @Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT " + EMPLOYEE_LIST_ROW + " FROM User u WHERE u.role = :role AND (" +
            "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(u.position) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(u.department) LIKE LOWER(CONCAT('%', :search, '%')))")
-    List<User> searchEmployees(@Param("role") User.Role role, @Param("search") String search);
+    List<EmployeeResponse> searchEmployeeListRows(@Param("role") User.Role role, @Param("search") String search);
     
-    @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role AND u.department = :department")
+    @Query("SELECT COUNT(u) FROM User u JOIN Department d ON d.id = u.departmentId " +
+           "WHERE u.role = :role AND d.name = :department")
     Long countEmployeesByDepartment(@Param("role") User.Role role, @Param("department") String department);
     
+    long countByRoleAndDepartmentId(User.Role role, Long departmentId);
+    
+    @Query("SELECT " + EMPLOYEE_LIST_ROW + " FROM User u WHERE u.role = :role AND u.departmentId = :departmentId")
+    List<EmployeeResponse> findListRowsByRoleAndDepartmentId(@Param("role") User.Role role,
+                                                             @Param("departmentId") Long departmentId);
+    
+    // Keeps the denormalized department name of employees in step with a department rename
+    @Modifying
+    @Query("UPDATE User u SET u.department = :name WHERE u.departmentId = :departmentId")
+    int renameDepartment(@Param("departmentId") Long departmentId, @Param("name") String name);
+    
     @Query("SELECT DISTINCT u.department FROM User u WHERE u.role = :role AND u.department IS NOT NULL ORDER BY u.department")
     List<String> findEmployeeDepartments(@Param("role") User.Role role);
 }
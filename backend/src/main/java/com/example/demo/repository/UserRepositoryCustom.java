@@ -0,0 +1,36 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.EmployeeResponse;
+import com.example.demo.entity.User;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserRepositoryCustom {
+    
+    /**
+     * Keyset (seek) page of users with the given role ordered by (sortProperty, id).
+     * Rows are located with a range predicate on the sort key instead of an OFFSET scan,
+     * so the cost of a page does not depend on how deep it is. Null sort values order before all others
+     * (first ascending, last descending), which is MySQL's own index order, so the sort index stays usable.
+     *
+     * @param sortProperty entity property to order by; may be a nullable column
+     * @param lastValue    sort value of the last row of the previous page; null for the first page or a null value
+     * @param lastId       id of the last row of the previous page, or null for the first page
+     * @param limit        maximum number of rows to return
+     */
+    List<User> findByRoleAfter(User.Role role, String sortProperty, boolean descending,
+                               Object lastValue, Long lastId, int limit);
+    
+    /**
+     * Same page as {@link #findByRoleAfter} as employee list rows (see {@link UserRepository#EMPLOYEE_LIST_ROW})
+     */
+    List<EmployeeResponse> findListRowsByRoleAfter(User.Role role, String sortProperty, boolean descending,
+                                                   Object lastValue, Long lastId, int limit);
+    
+    /**
+     * Users with the given ids, in no particular order. Ids found in the second-level cache are served
+     * from it and only the rest are loaded with a single IN query; {@code findAllById} always queries.
+     */
+    List<User> findAllByIdCached(Collection<Long> ids);
+}
@@ -0,0 +1,83 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.EmployeeResponse;
+import com.example.demo.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<User> findByRoleAfter(User.Role role, String sortProperty, boolean descending,
+                                      Object lastValue, Long lastId, int limit) {
+        return seekQuery("u", User.class, role, sortProperty, descending, lastValue, lastId, limit).getResultList();
+    }
+    
+    @Override
+    public List<EmployeeResponse> findListRowsByRoleAfter(User.Role role, String sortProperty, boolean descending,
+                                                          Object lastValue, Long lastId, int limit) {
+        return seekQuery(UserRepository.EMPLOYEE_LIST_ROW, EmployeeResponse.class, role, sortProperty, descending,
+                lastValue, lastId, limit).getResultList();
+    }
+    
+    private <T> TypedQuery<T> seekQuery(String selection, Class<T> resultClass, User.Role role, String sortProperty,
+                                        boolean descending, Object lastValue, Long lastId, int limit) {
+        String direction = descending ? "DESC" : "ASC";
+        String comparison = descending ? "<" : ">";
+        String key = "u." + sortProperty;
+        boolean seek = lastId != null;
+        
+        // sortProperty comes from a fixed whitelist in EmployeeService, never from raw user input
+        StringBuilder jpql = new StringBuilder("SELECT ").append(selection).append(" FROM User u WHERE u.role = :role");
+        if (seek && lastValue == null) {
+            // Still among the nulls: the rest of them, then (ascending only) every non-null value
+            jpql.append(" AND ((").append(key).append(" IS NULL AND u.id ").append(comparison).append(" :lastId)");
+            if (!descending) {
+                jpql.append(" OR ").append(key).append(" IS NOT NULL");
+            }
+            jpql.append(')');
+        } else if (seek) {
+            jpql.append(" AND (").append(key).append(' ').append(comparison).append(" :lastValue")
+                .append(" OR (").append(key).append(" = :lastValue AND u.id ").append(comparison).append(" :lastId)");
+            if (descending) {
+                jpql.append(" OR ").append(key).append(" IS NULL");
+            }
+            jpql.append(')');
+        }
+        jpql.append(" ORDER BY ").append(key).append(' ').append(direction)
+            .append(descending ? " NULLS LAST" : " NULLS FIRST")
+            .append(", u.id ").append(direction);
+        
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), resultClass)
+                .setParameter("role", role)
+                .setMaxResults(limit);
+        if (seek) {
+            query.setParameter("lastId", lastId);
+            if (lastValue != null) {
+                query.setParameter("lastValue", lastValue);
+            }
+        }
+        return query;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> findAllByIdCached(Collection<Long> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(User.class)
+                // multi-load only consults the second-level cache when a cache mode is set explicitly
+                .with(CacheMode.NORMAL)
+                .enableOrderedReturn(false)
+                .multiLoad(List.copyOf(ids));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.search;
+
+import com.example.demo.entity.Department;
+import com.example.demo.event.DepartmentChangedEvent;
+import com.example.demo.repository.DepartmentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Search index over department name and description
+ */
+@Component
+public class DepartmentSearchIndex extends EntitySearchIndex<Department> {
+    
+    private final DepartmentRepository departmentRepository;
+    
+    public DepartmentSearchIndex(DepartmentRepository departmentRepository,
+                                 @Value("${app.search.index.enabled:true}") boolean enabled) {
+        // name, description
+        super(enabled, 3, 1);
+        this.departmentRepository = departmentRepository;
+    }
+    
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        startBuild();
+    }
+    
+    @TransactionalEventListener
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        // Soft-deleted departments stay searchable, matching the database search
+        indexEntity(event.getDepartment());
+    }
+    
+    @Override
+    protected List<Department> loadBatch(Long afterId, int batchSize) {
+        return departmentRepository.findByIdGreaterThanOrderByIdAsc(afterId != null ? afterId : 0L,
+                PageRequest.of(0, batchSize));
+    }
+    
+    @Override
+    protected Long idOf(Department department) {
+        return department.getId();
+    }
+    
+    @Override
+    protected String[] fieldsOf(Department department) {
+        return new String[]{department.getName(), department.getDescription()};
+    }
+    
+    @Override
+    protected String name() {
+        return "department";
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.EmployeeResponse;
+import com.example.demo.entity.User;
+import com.example.demo.event.DepartmentChangedEvent;
+import com.example.demo.event.EmployeeChangedEvent;
+import com.example.demo.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Search index over employee name, email, position and department.
+ * Built from list-row projections, so the initial build reads neither password hashes nor profiles and loads
+ * no entities: the persistence context and the second-level cache stay untouched however large the table is.
+ */
+@Component
+public class EmployeeSearchIndex extends EntitySearchIndex<EmployeeResponse> {
+    
+    private final UserRepository userRepository;
+    
+    public EmployeeSearchIndex(UserRepository userRepository,
+                               @Value("${app.search.index.enabled:true}") boolean enabled) {
+        // full name, email, position, department
+        super(enabled, 4, 3, 2, 1);
+        this.userRepository = userRepository;
+    }
+    
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        startBuild();
+    }
+    
+    @TransactionalEventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        EmployeeResponse employee = EmployeeResponse.fromUser(event.getEmployee());
+        if (event.getType() == EmployeeChangedEvent.Type.DELETED) {
+            removeEntity(employee);
+        } else {
+            indexEntity(employee);
+        }
+    }
+    
+    // A rename changes the department field of all its employees; re-read them with one query
+    @TransactionalEventListener
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        if (event.isRename()) {
+            userRepository.findListRowsByRoleAndDepartmentId(User.Role.EMPLOYEE, event.getDepartment().getId())
+                    .forEach(this::indexEntity);
+        }
+    }
+    
+    @Override
+    protected List<EmployeeResponse> loadBatch(Long afterId, int batchSize) {
+        return userRepository.findListRowsByRoleAfter(User.Role.EMPLOYEE, "id", false, afterId, afterId, batchSize);
+    }
+    
+    @Override
+    protected Long idOf(EmployeeResponse employee) {
+        return employee.getId();
+    }
+    
+    @Override
+    protected String[] fieldsOf(EmployeeResponse employee) {
+        String fullName = (employee.getFirstName() != null ? employee.getFirstName() : "") + " "
+                + (employee.getLastName() != null ? employee.getLastName() : "");
+        return new String[]{fullName, employee.getEmail(), employee.getPosition(), employee.getDepartment()};
+    }
+    
+    @Override
+    protected String name() {
+        return "employee";
+    }
+}
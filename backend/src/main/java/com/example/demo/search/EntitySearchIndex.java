@@ -0,0 +1,131 @@
+package com.example.demo.search;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Trigram search index over one entity type, built in the background at startup and kept current
+ * by change events. Subclasses start the build from an @Async listener so it runs on the application
+ * task executor (virtual threads when enabled). Until the initial build finishes {@link #search} returns null and callers fall back
+ * to the database query.
+ */
+@Slf4j
+public abstract class EntitySearchIndex<T> {
+    
+    private static final int BATCH_SIZE = 5000;
+    
+    private final TrigramIndex index;
+    private final boolean enabled;
+    
+    // Ids written through events while the initial build runs; the build must not overwrite them with older rows
+    private final Set<Long> changedDuringBuild = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile boolean building;
+    private volatile boolean ready;
+    
+    protected EntitySearchIndex(boolean enabled, int... fieldWeights) {
+        this.enabled = enabled;
+        this.index = new TrigramIndex(fieldWeights);
+    }
+    
+    /**
+     * Next batch of entities with an id greater than afterId (null for the first batch), ordered by id
+     */
+    protected abstract List<T> loadBatch(Long afterId, int batchSize);
+    
+    protected abstract Long idOf(T entity);
+    
+    /**
+     * Searchable fields, in the order of the weights given to the constructor
+     */
+    protected abstract String[] fieldsOf(T entity);
+    
+    protected abstract String name();
+    
+    /**
+     * Build the index from the database; call from a background thread
+     */
+    protected void startBuild() {
+        if (!enabled) {
+            log.info("{} search index disabled; searches use the database", name());
+            return;
+        }
+        build();
+    }
+    
+    private void build() {
+        long started = System.currentTimeMillis();
+        building = true;
+        try {
+            Long lastId = null;
+            List<T> batch;
+            do {
+                batch = loadBatch(lastId, BATCH_SIZE);
+                for (T entity : batch) {
+                    Long id = idOf(entity);
+                    writeLock.lock();
+                    try {
+                        if (!changedDuringBuild.contains(id)) {
+                            index.put(id, fieldsOf(entity));
+                        }
+                    } finally {
+                        writeLock.unlock();
+                    }
+                    lastId = id;
+                }
+            } while (batch.size() == BATCH_SIZE);
+            
+            ready = true;
+            log.info("{} search index built with {} documents in {} ms",
+                    name(), index.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Failed to build {} search index; searches keep using the database", name(), e);
+        } finally {
+            building = false;
+            changedDuringBuild.clear();
+        }
+    }
+    
+    protected void indexEntity(T entity) {
+        writeLock.lock();
+        try {
+            if (building) {
+                changedDuringBuild.add(idOf(entity));
+            }
+            index.put(idOf(entity), fieldsOf(entity));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    protected void removeEntity(T entity) {
+        writeLock.lock();
+        try {
+            if (building) {
+                changedDuringBuild.add(idOf(entity));
+            }
+            index.remove(idOf(entity));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * Ranked ids of matching entities, or null when the index cannot answer
+     * (disabled, still building, or term shorter than a trigram)
+     */
+    public List<Long> search(String term) {
+        if (!ready || term == null || term.trim().length() < TrigramIndex.MIN_TERM_LENGTH) {
+            return null;
+        }
+        return index.search(term.trim());
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram inverted index giving case-insensitive substring search over a few text fields per document.
+ * <p>
+ * Each document is stored as its lowercased fields; every three-character window of every field points
+ * at the document through a sorted posting list. A query intersects the posting lists of its own trigrams
+ * and then verifies the surviving candidates with a real substring check, so results match
+ * {@code LOWER(field) LIKE '%term%'} on any field. Matches are ranked by field weight and match position.
+ * <p>
+ * Terms shorter than {@link #MIN_TERM_LENGTH} cannot be answered from trigrams; callers fall back to the database.
+ */
+public class TrigramIndex {
+    
+    public static final int MIN_TERM_LENGTH = 3;
+    
+    // Separates fields inside a stored document; never part of a trigram or a search term
+    private static final char FIELD_SEPARATOR = '\u0001';
+    
+    private final int[] fieldWeights;
+    private final Map<Long, String> documents = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    /**
+     * @param fieldWeights ranking weight of each field, in the order fields are passed to {@link #put}
+     */
+    public TrigramIndex(int... fieldWeights) {
+        this.fieldWeights = fieldWeights;
+    }
+    
+    /**
+     * Add or replace a document
+     */
+    public void put(long id, String... fields) {
+        String document = toDocument(fields);
+        lock.writeLock().lock();
+        try {
+            String previous = documents.put(id, document);
+            if (previous != null) {
+                for (long trigram : trigrams(previous)) {
+                    removePosting(trigram, id);
+                }
+            }
+            for (long trigram : trigrams(document)) {
+                postings.computeIfAbsent(trigram, key -> new PostingList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            String previous = documents.remove(id);
+            if (previous != null) {
+                for (long trigram : trigrams(previous)) {
+                    removePosting(trigram, id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Ids of all documents with a field containing the term (case-insensitive), best matches first.
+     *
+     * @throws IllegalArgumentException if the term is shorter than {@link #MIN_TERM_LENGTH}
+     */
+    public List<Long> search(String term) {
+        String needle = normalize(term);
+        if (needle.length() < MIN_TERM_LENGTH) {
+            throw new IllegalArgumentException("Search term must have at least " + MIN_TERM_LENGTH + " characters");
+        }
+        
+        lock.readLock().lock();
+        try {
+            long[] queryTrigrams = trigrams(needle);
+            PostingList[] lists = new PostingList[queryTrigrams.length];
+            for (int i = 0; i < queryTrigrams.length; i++) {
+                lists[i] = postings.get(queryTrigrams[i]);
+                if (lists[i] == null) {
+                    return new ArrayList<>();
+                }
+            }
+            // Drive the intersection from the most selective trigram
+            Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+            
+            List<long[]> matches = new ArrayList<>();
+            PostingList smallest = lists[0];
+            for (int i = 0; i < smallest.size(); i++) {
+                long id = smallest.get(i);
+                if (!inAll(lists, id)) {
+                    continue;
+                }
+                int score = score(documents.get(id), needle);
+                if (score > 0) {
+                    matches.add(new long[]{id, score});
+                }
+            }
+            
+            matches.sort((a, b) -> a[1] != b[1] ? Long.compare(b[1], a[1]) : Long.compare(a[0], b[0]));
+            List<Long> ids = new ArrayList<>(matches.size());
+            for (long[] match : matches) {
+                ids.add(match[0]);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private boolean inAll(PostingList[] lists, long id) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Weighted score of the term against each field: exact > prefix > word start > anywhere; 0 when absent
+     */
+    private int score(String document, String needle) {
+        int score = 0;
+        int field = 0;
+        int start = 0;
+        while (start <= document.length()) {
+            int end = document.indexOf(FIELD_SEPARATOR, start);
+            if (end < 0) {
+                end = document.length();
+            }
+            String value = document.substring(start, end);
+            int position = value.indexOf(needle);
+            if (position >= 0) {
+                int weight = field < fieldWeights.length ? fieldWeights[field] : 1;
+                if (value.length() == needle.length()) {
+                    score += weight * 4;
+                } else if (position == 0) {
+                    score += weight * 3;
+                } else if (!Character.isLetterOrDigit(value.charAt(position - 1))) {
+                    score += weight * 2;
+                } else {
+                    score += weight;
+                }
+            }
+            field++;
+            start = end + 1;
+        }
+        return score;
+    }
+    
+    private void removePosting(long trigram, long id) {
+        PostingList list = postings.get(trigram);
+        if (list != null) {
+            list.remove(id);
+            if (list.size() == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+    
+    private static String toDocument(String... fields) {
+        StringBuilder document = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                document.append(FIELD_SEPARATOR);
+            }
+            if (fields[i] != null) {
+                document.append(normalize(fields[i]).replace(FIELD_SEPARATOR, ' '));
+            }
+        }
+        return document.toString();
+    }
+    
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Distinct trigrams of the text, skipping windows that cross a field boundary
+     */
+    private static long[] trigrams(String text) {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+        long[] result = new long[text.length() - 2];
+        int count = 0;
+        for (int i = 0; i + 2 < text.length(); i++) {
+            char a = text.charAt(i);
+            char b = text.charAt(i + 1);
+            char c = text.charAt(i + 2);
+            if (a == FIELD_SEPARATOR || b == FIELD_SEPARATOR || c == FIELD_SEPARATOR) {
+                continue;
+            }
+            result[count++] = ((long) a << 32) | ((long) b << 16) | c;
+        }
+        long[] distinct = Arrays.copyOf(result, count);
+        Arrays.sort(distinct);
+        int unique = 0;
+        for (int i = 0; i < distinct.length; i++) {
+            if (i == 0 || distinct[i] != distinct[i - 1]) {
+                distinct[unique++] = distinct[i];
+            }
+        }
+        return Arrays.copyOf(distinct, unique);
+    }
+    
+    /**
+     * Sorted, growable array of document ids. New ids are usually the largest, so inserts are amortised appends.
+     */
+    private static class PostingList {
+        
+        private long[] ids = new long[4];
+        private int size;
+        
+        int size() {
+            return size;
+        }
+        
+        long get(int index) {
+            return ids[index];
+        }
+        
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+        
+        void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+        
+        void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+    }
+}
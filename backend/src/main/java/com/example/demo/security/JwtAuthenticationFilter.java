@@ -1,5 +1,9 @@
 package com.example.demo.security;
 
+import com.example.demo.entity.User;
+import com.example.demo.jfr.RequestAuthenticationEvent;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +13,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -21,6 +26,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final UserDetailsCache userDetailsCache;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -37,12 +43,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         jwt = authHeader.substring(7);
-        username = jwtUtil.extractUsername(jwt);
+        
+        RequestAuthenticationEvent event = new RequestAuthenticationEvent();
+        event.begin();
+        
+        // Parse and verify the token exactly once; signature and expiry are checked here
+        final Claims claims;
+        try {
+            claims = jwtUtil.extractVerifiedClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            event.outcome = "rejected";
+            event.commit();
+            filterChain.doFilter(request, response);
+            return;
+        }
+        username = claims.getSubject();
         
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = resolvePrincipal(username, claims, event);
+            event.outcome = "unknown-user";
             
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (userDetails != null && userDetails.isEnabled() && username.equals(userDetails.getUsername())) {
+                event.outcome = "authenticated";
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -54,7 +76,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
+        event.commit();
         
         filterChain.doFilter(request, response);
     }
+    
+    /**
+     * Resolve the principal for a verified token.
+     * Uses the user-details cache (the default), so a deactivated user is rejected on the next request.
+     * With the cache disabled the user is built from the token claims without touching the database, trading
+     * revocation for one lookup less per TTL; tokens issued before the id/role claims existed fall back to a lookup.
+     */
+    private UserDetails resolvePrincipal(String username, Claims claims, RequestAuthenticationEvent event) {
+        try {
+            if (userDetailsCache.isEnabled()) {
+                event.principalSource = "cache";
+                return userDetailsCache.get(username, userDetailsService::loadUserByUsername);
+            }
+            
+            User principal = jwtUtil.extractPrincipal(claims);
+            if (principal != null) {
+                event.principalSource = "claims";
+                return principal;
+            }
+            
+            event.principalSource = "database";
+            return userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
 }
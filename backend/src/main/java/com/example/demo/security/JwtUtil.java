@@ -1,7 +1,17 @@
 package com.example.demo.security;
 
+import com.example.demo.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -10,19 +20,69 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
     
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    
     @Value("${app.jwt.secret}")
     private String secret;
     
     @Value("${app.jwt.expiration}")
     private Long expiration;
     
+    @Value("${app.jwt.claims-cache-size:10000}")
+    private long claimsCacheSize;
+    
+    // Built once at startup instead of on every sign/parse call
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    
+    // Optional so the class can be built without a Spring context, e.g. in benchmarks
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    
+    // Already-verified tokens mapped to their claims; entries expire together with the token
+    private Cache<String, Claims> verifiedClaims;
+    
+    // Time spent in extractVerifiedClaims, by whether the claims came from the cache, a full parse or a rejection
+    private Timer cachedVerifications;
+    private Timer parsedVerifications;
+    private Timer rejectedVerifications;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        
+        // A composite registry without children records nothing
+        MeterRegistry registry = meterRegistry != null ? meterRegistry : new CompositeMeterRegistry();
+        CaffeineCacheMetrics.monitor(registry, verifiedClaims, "jwt.claims");
+        cachedVerifications = verificationTimer(registry, "cached");
+        parsedVerifications = verificationTimer(registry, "parsed");
+        rejectedVerifications = verificationTimer(registry, "rejected");
+    }
+    
+    private static Timer verificationTimer(MeterRegistry registry, String result) {
+        return Timer.builder("jwt.verification")
+                .description("Token signature and expiry checks")
+                .tag("result", result)
+                .register(registry);
+    }
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
     }
     
     public String extractEmail(String token) {
@@ -44,22 +104,70 @@ public class JwtUtil {
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return extractVerifiedClaims(token);
+    }
+    
+    /**
+     * Verify the token signature and expiry and return its claims.
+     * A token is parsed at most once while it stays in the verified-claims cache.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims extractVerifiedClaims(String token) {
+        long start = System.nanoTime();
+        Claims cached = verifiedClaims.getIfPresent(token);
+        if (cached != null && !isExpired(cached)) {
+            cachedVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        
+        Claims claims;
+        try {
+            claims = jwtParser.parseSignedClaims(token).getPayload();
+        } catch (RuntimeException e) {
+            rejectedVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        if (claims.getExpiration() != null) {
+            verifiedClaims.put(token, claims);
+        }
+        parsedVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return claims;
     }
     
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
     }
     
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(ROLE_CLAIM, user.getRole().name());
+        }
         return createToken(claims, userDetails.getUsername());
     }
     
+    /**
+     * Build the request principal from the id and role carried in the token, for the claims-only mode.
+     * The user is taken to be active; changes made after the token was issued are not seen.
+     * Returns null for tokens issued without those claims.
+     */
+    public User extractPrincipal(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        
+        User user = new User();
+        user.setId(userId.longValue());
+        user.setEmail(claims.getSubject());
+        user.setRole(User.Role.valueOf(role));
+        user.setIsActive(true);
+        return user;
+    }
+    
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .claims(claims)
@@ -71,19 +179,38 @@ public class JwtUtil {
     }
     
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = extractAllClaims(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && !isExpired(claims));
     }
     
     public Boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
+            extractVerifiedClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
+    
+    /**
+     * Expire cached claims at the moment the token itself expires
+     */
+    private static class TokenExpiry implements Expiry<String, Claims> {
+        
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+        
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
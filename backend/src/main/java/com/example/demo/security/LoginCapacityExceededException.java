@@ -0,0 +1,20 @@
+package com.example.demo.security;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the password verification pool is saturated and a login cannot be accepted right now
+ */
+public class LoginCapacityExceededException extends RuntimeException {
+    
+    private final Duration retryAfter;
+    
+    public LoginCapacityExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+    
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.security;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a login attempt exceeds the attempt rate allowed for its client address or email
+ */
+public class LoginRateLimitedException extends RuntimeException {
+    
+    private final Duration retryAfter;
+    
+    public LoginRateLimitedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+    
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
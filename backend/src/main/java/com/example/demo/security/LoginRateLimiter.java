@@ -0,0 +1,133 @@
+package com.example.demo.security;
+
+import com.example.demo.event.EmployeeChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds login attempts before they reach the user lookup and BCrypt.
+ * <p>
+ * Every attempt takes a token from the bucket of its client address and from the bucket of the email it names,
+ * so a credential-stuffing burst from one address and a spray of addresses at one account are both slowed to the
+ * configured rate and answered with 429. A successful login gives both tokens back: only failed attempts count,
+ * so the users behind one proxy or NAT address can all log in at once, while tokens are still taken up front to
+ * bound how many guesses can be in password verification at the same time. Emails that were just looked up and found not to exist are remembered for
+ * a while and rejected as bad credentials without a query or password check. That answers faster than a failed
+ * check of a real account's password, which is the trade accepted here for not spending BCrypt on them.
+ */
+@Component
+public class LoginRateLimiter {
+    
+    private final boolean enabled;
+    private final TokenBucketLimiter addressLimiter;
+    private final TokenBucketLimiter emailLimiter;
+    private final Cache<String, Boolean> unknownEmails;
+    private final Counter addressRejections;
+    private final Counter emailRejections;
+    private final Counter unknownEmailRejections;
+    
+    public LoginRateLimiter(@Value("${app.security.login.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${app.security.login.rate-limit.address.capacity:20}") int addressCapacity,
+                            @Value("${app.security.login.rate-limit.address.refill-period:1m}") Duration addressRefillPeriod,
+                            @Value("${app.security.login.rate-limit.email.capacity:5}") int emailCapacity,
+                            @Value("${app.security.login.rate-limit.email.refill-period:5m}") Duration emailRefillPeriod,
+                            @Value("${app.security.login.rate-limit.max-keys:100000}") long maxKeys,
+                            @Value("${app.security.login.rate-limit.unknown-email-ttl:10m}") Duration unknownEmailTtl,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.addressLimiter = new TokenBucketLimiter(addressCapacity, addressRefillPeriod, maxKeys);
+        this.emailLimiter = new TokenBucketLimiter(emailCapacity, emailRefillPeriod, maxKeys);
+        this.unknownEmails = Caffeine.newBuilder()
+                .expireAfterWrite(unknownEmailTtl)
+                .maximumSize(maxKeys)
+                .build();
+        this.addressRejections = rejectionCounter(meterRegistry, "address");
+        this.emailRejections = rejectionCounter(meterRegistry, "email");
+        this.unknownEmailRejections = rejectionCounter(meterRegistry, "unknown-email");
+    }
+    
+    private static Counter rejectionCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("auth.login.rejected")
+                .description("Login attempts shed before password verification")
+                .tag("reason", reason)
+                .register(registry);
+    }
+    
+    /**
+     * Take a token for the client address and the email of a login attempt
+     *
+     * @throws LoginRateLimitedException if either bucket is empty
+     */
+    public void acquire(String clientAddress, String email) {
+        if (!enabled) {
+            return;
+        }
+        
+        long addressWait = addressLimiter.tryAcquire(clientAddress);
+        if (addressWait > 0) {
+            addressRejections.increment();
+            throw new LoginRateLimitedException("Too many login attempts from this address", retryAfter(addressWait));
+        }
+        long emailWait = emailLimiter.tryAcquire(normalize(email));
+        if (emailWait > 0) {
+            emailRejections.increment();
+            throw new LoginRateLimitedException("Too many login attempts for this account", retryAfter(emailWait));
+        }
+    }
+    
+    /**
+     * Give back the tokens of an attempt whose password was correct
+     */
+    public void release(String clientAddress, String email) {
+        if (enabled) {
+            addressLimiter.refund(clientAddress);
+            emailLimiter.refund(normalize(email));
+        }
+    }
+    
+    /**
+     * Whether the email was recently looked up and no user had it; counted as a rejection when true
+     */
+    public boolean isKnownUnknown(String email) {
+        if (!enabled || unknownEmails.getIfPresent(normalize(email)) == null) {
+            return false;
+        }
+        unknownEmailRejections.increment();
+        return true;
+    }
+    
+    /**
+     * Remember that no user has this email, until the TTL passes or a user is saved with it
+     */
+    public void recordUnknown(String email) {
+        if (enabled && email != null) {
+            unknownEmails.put(normalize(email), Boolean.TRUE);
+        }
+    }
+    
+    @TransactionalEventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.getEmployee().getEmail() != null) {
+            unknownEmails.invalidate(normalize(event.getEmployee().getEmail()));
+        }
+    }
+    
+    // Whole seconds, rounded up, so a client that waits the Retry-After it was given finds a token
+    private static Duration retryAfter(long waitNanos) {
+        return Duration.ofSeconds(TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+    
+    // Emails are compared case-insensitively, like the MySQL collation of users.email
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
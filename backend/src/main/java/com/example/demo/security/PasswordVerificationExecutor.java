@@ -0,0 +1,223 @@
+package com.example.demo.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dedicated, bounded pool for password verification.
+ * <p>
+ * BCrypt is deliberately slow and CPU bound, so running it on request threads lets a burst of logins
+ * occupy every Tomcat worker and stall unrelated API traffic. Logins are instead queued here: the pool
+ * has one thread per core by default and a fixed-size queue, and a login that finds the queue full or
+ * waits longer than the timeout fails fast with {@link LoginCapacityExceededException} (503) instead of
+ * piling up. Latency, CPU time and saturation are exported over JMX.
+ */
+@Component
+@ManagedResource(objectName = "com.example.demo:type=Authentication,name=PasswordVerification",
+        description = "Password verification pool used by login")
+public class PasswordVerificationExecutor {
+    
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Duration retryAfter;
+    
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final LongAdder totalCpuNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    
+    public PasswordVerificationExecutor(@Value("${app.security.login.threads:0}") int threads,
+                                        @Value("${app.security.login.queue-capacity:200}") int queueCapacity,
+                                        @Value("${app.security.login.timeout:5s}") Duration timeout,
+                                        @Value("${app.security.login.retry-after:2s}") Duration retryAfter) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-verify-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = timeout;
+        this.retryAfter = retryAfter;
+        
+        if (THREAD_MX_BEAN.isThreadCpuTimeSupported() && !THREAD_MX_BEAN.isThreadCpuTimeEnabled()) {
+            THREAD_MX_BEAN.setThreadCpuTimeEnabled(true);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    /**
+     * Run a verification task on the pool and wait for its result.
+     * Runtime exceptions thrown by the task (e.g. BadCredentialsException) are rethrown unchanged.
+     * Callers already inside a transaction run the task inline, as a pool thread could not see their uncommitted writes.
+     *
+     * @throws LoginCapacityExceededException if the queue is full or the task did not finish within the timeout
+     */
+    public <T> T execute(Callable<T> task) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return callInline(task);
+        }
+        
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                totalQueueWaitNanos.add(System.nanoTime() - submittedAt);
+                long cpuStart = currentThreadCpuTime();
+                try {
+                    return task.call();
+                } finally {
+                    totalCpuNanos.add(currentThreadCpuTime() - cpuStart);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new LoginCapacityExceededException("Too many concurrent logins, please retry", retryAfter);
+        }
+        
+        try {
+            T result = future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            completed.increment();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new LoginCapacityExceededException("Login verification timed out, please retry", retryAfter);
+        } catch (ExecutionException e) {
+            failed.increment();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException("Login verification failed", cause);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for login verification", e);
+        } finally {
+            recordLatency(System.nanoTime() - submittedAt);
+        }
+    }
+    
+    private <T> T callInline(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Login verification failed", e);
+        }
+    }
+    
+    private void recordLatency(long nanos) {
+        totalLatencyNanos.add(nanos);
+        maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+    }
+    
+    private static long currentThreadCpuTime() {
+        return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0L;
+    }
+    
+    private long finishedCount() {
+        return completed.sum() + failed.sum() + timedOut.sum();
+    }
+    
+    private double averageMillis(long totalNanos, long count) {
+        return count == 0 ? 0.0 : totalNanos / (double) count / 1_000_000.0;
+    }
+    
+    @ManagedAttribute(description = "Logins whose password verification completed (successful or not)")
+    public long getCompletedCount() {
+        return completed.sum() + failed.sum();
+    }
+    
+    @ManagedAttribute(description = "Logins rejected with bad credentials or another error")
+    public long getFailedCount() {
+        return failed.sum();
+    }
+    
+    @ManagedAttribute(description = "Logins rejected because the queue was full")
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+    
+    @ManagedAttribute(description = "Logins that exceeded the verification timeout")
+    public long getTimedOutCount() {
+        return timedOut.sum();
+    }
+    
+    @ManagedAttribute(description = "Average login latency including queue wait, in milliseconds")
+    public double getAverageLatencyMillis() {
+        return averageMillis(totalLatencyNanos.sum(), finishedCount());
+    }
+    
+    @ManagedAttribute(description = "Maximum login latency including queue wait, in milliseconds")
+    public double getMaxLatencyMillis() {
+        return maxLatencyNanos.get() / 1_000_000.0;
+    }
+    
+    @ManagedAttribute(description = "Average time spent queued before verification started, in milliseconds")
+    public double getAverageQueueWaitMillis() {
+        return averageMillis(totalQueueWaitNanos.sum(), executor.getCompletedTaskCount());
+    }
+    
+    @ManagedAttribute(description = "Average CPU time per verification, in milliseconds")
+    public double getAverageCpuMillis() {
+        return averageMillis(totalCpuNanos.sum(), executor.getCompletedTaskCount());
+    }
+    
+    @ManagedAttribute(description = "Total CPU time spent verifying passwords, in milliseconds")
+    public long getTotalCpuMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalCpuNanos.sum());
+    }
+    
+    @ManagedAttribute(description = "Logins waiting for a verification thread")
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+    
+    @ManagedAttribute(description = "Verification threads currently busy")
+    public int getActiveThreads() {
+        return executor.getActiveCount();
+    }
+    
+    @ManagedAttribute(description = "Size of the verification pool")
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+}
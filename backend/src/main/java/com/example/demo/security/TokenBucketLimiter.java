@@ -0,0 +1,84 @@
+package com.example.demo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by string, for rate limiting by client address or account.
+ * <p>
+ * Each bucket holds up to {@code capacity} tokens and regains them evenly over {@code refillPeriod}. A bucket is a
+ * single AtomicLong holding the time at which it will be full again (the GCRA form of a token bucket), updated by
+ * compare-and-set, so acquiring takes no lock. Buckets live in a size-bounded Caffeine map and are dropped after
+ * one refill period without use: by then they are full, which is what a new bucket starts as.
+ */
+public class TokenBucketLimiter {
+    
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final Cache<String, Bucket> buckets;
+    
+    public TokenBucketLimiter(int capacity, Duration refillPeriod, long maxKeys) {
+        this.nanosPerToken = refillPeriod.toNanos() / capacity;
+        this.burstNanos = nanosPerToken * capacity;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(refillPeriod)
+                .maximumSize(maxKeys)
+                .build();
+    }
+    
+    /**
+     * Take a token for the key if one is available
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next one is available
+     */
+    public long tryAcquire(String key) {
+        return buckets.get(key, k -> new Bucket()).tryAcquire(System.nanoTime());
+    }
+    
+    /**
+     * Return a token taken by {@link #tryAcquire}, never filling the bucket beyond its capacity
+     */
+    public void refund(String key) {
+        Bucket bucket = buckets.getIfPresent(key);
+        if (bucket != null) {
+            bucket.refund(System.nanoTime());
+        }
+    }
+    
+    private class Bucket {
+        
+        // Theoretical arrival time: the moment the bucket is full again. At or before now means it is full.
+        private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+        
+        long tryAcquire(long now) {
+            while (true) {
+                long current = fullAt.get();
+                long base = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+                long next = base + nanosPerToken;
+                long overdraft = next - now - burstNanos;
+                if (overdraft > 0) {
+                    return overdraft;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+        
+        void refund(long now) {
+            while (true) {
+                long current = fullAt.get();
+                if (current == Long.MIN_VALUE || current - now <= 0) {
+                    return;
+                }
+                long next = Math.max(current - nanosPerToken - now, 0) + now;
+                if (fullAt.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+    }
+}
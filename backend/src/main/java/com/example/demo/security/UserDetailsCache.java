@@ -0,0 +1,83 @@
+package com.example.demo.security;
+
+import com.example.demo.event.EmployeeChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * TTL and size bounded cache of user details used by the JWT filter.
+ * Request authentication reads the user from the database at most once per TTL, and committed writes to a user
+ * evict its entry so deactivation and role changes apply on the next request.
+ * When disabled, the filter builds the principal from token claims alone and such changes wait for token expiry.
+ */
+@Component
+public class UserDetailsCache {
+    
+    private final boolean enabled;
+    private final Cache<String, UserDetails> cache;
+    // Bumped by every invalidation, so a load that overlapped one does not stay cached
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    public UserDetailsCache(@Value("${app.security.user-cache.enabled:true}") boolean enabled,
+                            @Value("${app.security.user-cache.ttl:5m}") Duration ttl,
+                            @Value("${app.security.user-cache.max-size:10000}") long maxSize,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user.details");
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * The loader runs outside the cache's compute lock: it blocks on the database, and blocking inside
+     * ConcurrentHashMap.compute would pin a virtual thread to its carrier and stall other keys in the same bin.
+     * Concurrent misses for one email may load twice. A load that an invalidation overlapped may have read the
+     * row before the change committed; it is returned to its caller but not kept. The entry is put first and the
+     * counter checked after, so an invalidation either sees the entry or is seen by the check.
+     */
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        UserDetails cached = cache.getIfPresent(email);
+        if (cached != null) {
+            return cached;
+        }
+        long invalidationsBefore = invalidations.get();
+        UserDetails loaded = loader.apply(email);
+        cache.put(email, loaded);
+        if (invalidations.get() != invalidationsBefore) {
+            cache.asMap().remove(email, loaded);
+        }
+        return loaded;
+    }
+    
+    public void invalidate(String email) {
+        if (email != null) {
+            invalidations.incrementAndGet();
+            cache.invalidate(email);
+        }
+    }
+    
+    // After commit, so a request that reloads the user cannot read and cache the row from before the change
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        invalidate(event.getEmployee().getEmail());
+        invalidate(event.getPreviousEmail());
+    }
+}
@@ -5,8 +5,11 @@ import com.example.demo.dto.LoginRequest;
 import com.example.demo.entity.User;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.security.JwtUtil;
+import com.example.demo.security.LoginRateLimiter;
+import com.example.demo.security.PasswordVerificationExecutor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
@@ -18,11 +21,22 @@ public class AuthService {
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final PasswordVerificationExecutor passwordVerificationExecutor;
+    private final LoginRateLimiter loginRateLimiter;
     
-    public AuthResponse login(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
+    public AuthResponse login(LoginRequest request, String clientAddress) {
+        // Shed throttled attempts and emails known not to exist before any lookup or BCrypt work
+        loginRateLimiter.acquire(clientAddress, request.getEmail());
+        if (loginRateLimiter.isKnownUnknown(request.getEmail())) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        
+        // BCrypt runs on the bounded verification pool, not on the request thread
+        Authentication authentication = passwordVerificationExecutor.execute(() -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        );
+        ));
+        
+        loginRateLimiter.release(clientAddress, request.getEmail());
         
         User user = (User) authentication.getPrincipal();
         String token = jwtUtil.generateToken(user);
@@ -1,21 +1,54 @@
 package com.example.demo.service;
 
+import com.example.demo.entity.User;
+import com.example.demo.jfr.UserLoadEvent;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.LoginRateLimiter;
+import com.example.demo.security.UserDetailsCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final LoginRateLimiter loginRateLimiter;
     
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
+        UserLoadEvent event = new UserLoadEvent();
+        event.begin();
+        Optional<User> user = userRepository.findByEmail(email);
+        event.email = email;
+        event.found = user.isPresent();
+        event.commit();
+        
+        if (user.isEmpty()) {
+            loginRateLimiter.recordUnknown(email);
+        }
+        return user.orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
+    }
+    
+    /**
+     * Called after a successful login whose stored hash uses an outdated encoding or cost
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        userDetailsCache.invalidate(user.getUsername());
+        if (user instanceof User entity) {
+            entity.setPassword(newPassword);
+        }
+        return user;
     }
 }
@@ -0,0 +1,128 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Department;
+import com.example.demo.event.DepartmentChangedEvent;
+import com.example.demo.repository.DepartmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory registry of active department names, used to validate employee writes and to fill department dropdowns.
+ * <p>
+ * Loaded from the database on first use and kept current by department change events, so a lookup is a map read
+ * instead of a department listing. Names are keyed by department id so a rename replaces the old name.
+ * Resolving a name also yields the id that employee rows store in department_id.
+ * Lookups are case-aware: a name that differs from an active department only in case resolves to the stored spelling.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DepartmentNameRegistry {
+    
+    private final DepartmentRepository departmentRepository;
+    
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+    
+    /**
+     * Active department names, sorted
+     */
+    public List<String> getNames() {
+        return snapshot().sortedNames();
+    }
+    
+    /**
+     * Id and stored spelling of an active department matching the name exactly or ignoring case
+     */
+    public Optional<DepartmentName> resolve(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        Snapshot current = snapshot();
+        String trimmed = name.trim();
+        String stored = current.idsByName().containsKey(trimmed)
+                ? trimmed
+                : current.byLowerCaseName().get(trimmed.toLowerCase(Locale.ROOT));
+        return stored == null ? Optional.empty() : Optional.of(new DepartmentName(current.idsByName().get(stored), stored));
+    }
+    
+    @TransactionalEventListener
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        Department department = event.getDepartment();
+        writeLock.lock();
+        try {
+            if (snapshot == null) {
+                // First load reads committed state, which already includes this change
+                snapshot();
+                return;
+            }
+            Map<Long, String> namesById = new HashMap<>(snapshot.namesById());
+            if (event.getType() != DepartmentChangedEvent.Type.DELETED && Boolean.TRUE.equals(department.getIsActive())) {
+                namesById.put(department.getId(), department.getName());
+            } else {
+                namesById.remove(department.getId());
+            }
+            snapshot = Snapshot.of(namesById);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        writeLock.lock();
+        try {
+            if (snapshot == null) {
+                Map<Long, String> namesById = new HashMap<>();
+                for (Department department : departmentRepository.findByIsActiveTrue()) {
+                    namesById.put(department.getId(), department.getName());
+                }
+                snapshot = Snapshot.of(namesById);
+                log.info("Loaded {} department names", namesById.size());
+            }
+            return snapshot;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Immutable view swapped on every change; departments change rarely, so copying on write keeps reads lock-free
+     */
+    private record Snapshot(Map<Long, String> namesById, Map<String, Long> idsByName,
+                            Map<String, String> byLowerCaseName, List<String> sortedNames) {
+        
+        static Snapshot of(Map<Long, String> namesById) {
+            Map<String, Long> idsByName = new HashMap<>();
+            Map<String, String> byLowerCaseName = new HashMap<>();
+            namesById.forEach((id, name) -> {
+                idsByName.put(name, id);
+                byLowerCaseName.put(name.toLowerCase(Locale.ROOT), name);
+            });
+            List<String> sortedNames = new ArrayList<>(namesById.values());
+            Collections.sort(sortedNames);
+            return new Snapshot(Collections.unmodifiableMap(namesById), Collections.unmodifiableMap(idsByName),
+                    Collections.unmodifiableMap(byLowerCaseName), Collections.unmodifiableList(sortedNames));
+        }
+    }
+    
+    /**
+     * An active department as employees reference it: the id for the foreign key and the name for the API
+     */
+    public record DepartmentName(Long id, String name) {
+    }
+}
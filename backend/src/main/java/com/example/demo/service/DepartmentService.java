@@ -4,10 +4,16 @@ import com.example.demo.dto.DepartmentRequest;
 import com.example.demo.dto.DepartmentResponse;
 import com.example.demo.entity.Department;
 import com.example.demo.entity.User;
+import com.example.demo.event.DepartmentChangedEvent;
+import com.example.demo.jfr.DepartmentEnrichmentEvent;
 import com.example.demo.repository.DepartmentRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.search.DepartmentSearchIndex;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,6 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,10 +30,13 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed("hr.service")
 public class DepartmentService {
     
     private final DepartmentRepository departmentRepository;
     private final UserRepository userRepository;
+    private final DepartmentSearchIndex departmentSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Helper method to parse date string to LocalDateTime
@@ -52,6 +62,7 @@ public class DepartmentService {
     /**
      * Get all departments with employee counts and manager info
      */
+    @Transactional(readOnly = true)
     public List<DepartmentResponse> getAllDepartments() {
         List<Department> departments = departmentRepository.findByIsActiveTrue();
         return enrichDepartmentsWithDetails(departments);
@@ -60,14 +71,17 @@ public class DepartmentService {
     /**
      * Get paginated departments
      */
+    @Transactional(readOnly = true)
     public Page<DepartmentResponse> getAllDepartments(Pageable pageable) {
-        return departmentRepository.findAll(pageable)
-                .map(this::enrichDepartmentWithDetails);
+        Page<Department> departments = departmentRepository.findAll(pageable);
+        return new PageImpl<>(enrichDepartmentsWithDetails(departments.getContent()),
+                pageable, departments.getTotalElements());
     }
     
     /**
      * Get department by ID
      */
+    @Transactional(readOnly = true)
     public DepartmentResponse getDepartmentById(Long id) {
         Department department = departmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Department not found with id: " + id));
@@ -87,6 +101,7 @@ public class DepartmentService {
         mapRequestToDepartment(request, department);
         
         Department savedDepartment = departmentRepository.save(department);
+        eventPublisher.publishEvent(new DepartmentChangedEvent(DepartmentChangedEvent.Type.CREATED, savedDepartment));
         return enrichDepartmentWithDetails(savedDepartment);
     }
     
@@ -103,8 +118,17 @@ public class DepartmentService {
             throw new RuntimeException("Department with name '" + request.getName() + "' already exists");
         }
         
+        String previousName = department.getName();
         mapRequestToDepartment(request, department);
         Department updatedDepartment = departmentRepository.save(department);
+        boolean renamed = !previousName.equals(updatedDepartment.getName());
+        if (renamed) {
+            // Employees keep their department_id; one UPDATE carries the new name over to all of them, and the
+            // listeners of the rename event refresh what is derived from it (search index, list responses)
+            userRepository.renameDepartment(updatedDepartment.getId(), updatedDepartment.getName());
+        }
+        eventPublisher.publishEvent(new DepartmentChangedEvent(DepartmentChangedEvent.Type.UPDATED, updatedDepartment,
+                renamed ? previousName : null));
         return enrichDepartmentWithDetails(updatedDepartment);
     }
     
@@ -116,26 +140,41 @@ public class DepartmentService {
                 .orElseThrow(() -> new RuntimeException("Department not found with id: " + id));
         
         // Check if there are employees in this department
-            long employeeCount = userRepository.countEmployeesByDepartment(User.Role.EMPLOYEE, department.getName());
+        long employeeCount = userRepository.countByRoleAndDepartmentId(User.Role.EMPLOYEE, department.getId());
         if (employeeCount > 0) {
             throw new RuntimeException("Cannot delete department with " + employeeCount + " employees. Please move employees to other departments first.");
         }
         
         department.setIsActive(false);
         departmentRepository.save(department);
+        eventPublisher.publishEvent(new DepartmentChangedEvent(DepartmentChangedEvent.Type.DELETED, department));
     }
     
     /**
-     * Search departments by term
+     * Search departments by term, ranked by the in-memory trigram index.
+     * Falls back to the database LIKE query for short terms or while the index is building.
      */
+    @Transactional(readOnly = true)
     public List<DepartmentResponse> searchDepartments(String searchTerm) {
-        List<Department> departments = departmentRepository.searchDepartments(searchTerm);
+        List<Long> rankedIds = departmentSearchIndex.search(searchTerm);
+        if (rankedIds == null) {
+            List<Department> departments = departmentRepository.searchDepartments(searchTerm);
+            return enrichDepartmentsWithDetails(departments);
+        }
+        
+        Map<Long, Department> departmentsById = departmentRepository.findAllById(rankedIds).stream()
+                .collect(Collectors.toMap(Department::getId, department -> department));
+        List<Department> departments = rankedIds.stream()
+                .map(departmentsById::get)
+                .filter(department -> department != null)
+                .collect(Collectors.toList());
         return enrichDepartmentsWithDetails(departments);
     }
     
     /**
      * Get departments managed by a specific employee
      */
+    @Transactional(readOnly = true)
     public List<DepartmentResponse> getDepartmentsByManager(Long managerId) {
         List<Department> departments = departmentRepository.findByManagerId(managerId);
         return enrichDepartmentsWithDetails(departments);
@@ -159,13 +198,21 @@ public class DepartmentService {
     }
     
     /**
-     * Enrich multiple departments with employee counts and manager details
+     * Enrich multiple departments with employee counts and manager details.
+     * Uses one grouped count query and one batched manager lookup regardless of list size.
      */
     private List<DepartmentResponse> enrichDepartmentsWithDetails(List<Department> departments) {
+        if (departments.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
         // Get employee counts for all departments
-        Map<Long, Long> employeeCounts = getEmployeeCountsForDepartments();
+        DepartmentEnrichmentEvent countsPhase = enrichmentPhase(DepartmentEnrichmentEvent.COUNTS, departments);
+        Map<Long, Long> employeeCounts = getEmployeeCountsForDepartments(departments);
+        countsPhase.commit();
         
         // Get all managers at once to minimize database queries
+        DepartmentEnrichmentEvent managersPhase = enrichmentPhase(DepartmentEnrichmentEvent.MANAGERS, departments);
         List<Long> managerIds = departments.stream()
                 .map(Department::getManagerId)
                 .filter(id -> id != null)
@@ -174,13 +221,15 @@ public class DepartmentService {
         
         final Map<Long, User> managers;
         if (!managerIds.isEmpty()) {
-            managers = userRepository.findAllById(managerIds).stream()
+            managers = userRepository.findAllByIdCached(managerIds).stream()
                     .collect(Collectors.toMap(User::getId, user -> user));
         } else {
             managers = new HashMap<>();
         }
+        managersPhase.commit();
         
-        return departments.stream()
+        DepartmentEnrichmentEvent mappingPhase = enrichmentPhase(DepartmentEnrichmentEvent.MAPPING, departments);
+        List<DepartmentResponse> responses = departments.stream()
                 .map(dept -> {
                     dept.setEmployeeCount(employeeCounts.getOrDefault(dept.getId(), 0L));
                     if (dept.getManagerId() != null) {
@@ -189,36 +238,36 @@ public class DepartmentService {
                     return DepartmentResponse.fromDepartment(dept);
                 })
                 .collect(Collectors.toList());
+        mappingPhase.commit();
+        return responses;
+    }
+    
+    private static DepartmentEnrichmentEvent enrichmentPhase(String phase, List<Department> departments) {
+        DepartmentEnrichmentEvent event = new DepartmentEnrichmentEvent();
+        event.phase = phase;
+        event.departmentCount = departments.size();
+        event.begin();
+        return event;
     }
     
     /**
      * Enrich single department with employee count and manager details
      */
     private DepartmentResponse enrichDepartmentWithDetails(Department department) {
-        // Get employee count for this department
-        long employeeCount = userRepository.countEmployeesByDepartment(User.Role.EMPLOYEE, department.getName());
-        department.setEmployeeCount(employeeCount);
-        
-        // Get manager details if available
-        if (department.getManagerId() != null) {
-            userRepository.findById(department.getManagerId())
-                    .ifPresent(department::setManager);
-        }
-        
-        return DepartmentResponse.fromDepartment(department);
+        return enrichDepartmentsWithDetails(List.of(department)).get(0);
     }
     
     /**
-     * Get employee counts for all departments
+     * Get employee counts for the given departments in a single grouped query
      */
-    private Map<Long, Long> getEmployeeCountsForDepartments() {
-        Map<Long, Long> counts = new HashMap<>();
+    private Map<Long, Long> getEmployeeCountsForDepartments(List<Department> departments) {
+        List<Long> departmentIds = departments.stream()
+                .map(Department::getId)
+                .collect(Collectors.toList());
         
-        // Get all departments and their names
-        List<Department> departments = departmentRepository.findAll();
-        for (Department dept : departments) {
-            long count = userRepository.countEmployeesByDepartment(User.Role.EMPLOYEE, dept.getName());
-            counts.put(dept.getId(), count);
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : departmentRepository.findDepartmentEmployeeCounts(User.Role.EMPLOYEE, departmentIds)) {
+            counts.put((Long) row[0], (Long) row[1]);
         }
         
         return counts;
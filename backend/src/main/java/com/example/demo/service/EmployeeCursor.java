@@ -0,0 +1,113 @@
+package com.example.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Opaque continuation token for keyset pagination over employees.
+ * Encodes the sort key, direction and the (sort value, id) of the last row returned. The sort value may be null
+ * (last name, hire date and creation time are nullable); nulls order before every value, see
+ * {@link com.example.demo.repository.UserRepositoryCustom#findByRoleAfter}.
+ */
+class EmployeeCursor {
+    
+    // Public sort names mapped to the User properties that can be seeked on
+    static final Map<String, String> SORT_PROPERTIES = Map.of(
+            "id", "id",
+            "name", "lastName",
+            "lastName", "lastName",
+            "email", "email",
+            "hireDate", "hireDate",
+            "createdAt", "createdAt"
+    );
+    
+    private static final String VERSION = "v2";
+    // Prefix of a present sort value; a null value is encoded as nothing at all
+    private static final String VALUE_PREFIX = "=";
+    
+    private final String sortBy;
+    private final boolean descending;
+    private final Object lastValue;
+    private final Long lastId;
+    
+    EmployeeCursor(String sortBy, boolean descending, Object lastValue, Long lastId) {
+        this.sortBy = sortBy;
+        this.descending = descending;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+    
+    /**
+     * Cursor for the first page
+     */
+    static EmployeeCursor first(String sortBy, boolean descending) {
+        if (!SORT_PROPERTIES.containsKey(sortBy)) {
+            throw new IllegalArgumentException("Unsupported sort field for cursor pagination: " + sortBy
+                    + ". Supported fields are: " + String.join(", ", SORT_PROPERTIES.keySet()));
+        }
+        return new EmployeeCursor(sortBy, descending, null, null);
+    }
+    
+    static EmployeeCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // version|sortBy|direction|lastId|lastValue (value last since it may contain the separator)
+            String[] parts = decoded.split("\\|", 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0]) || !SORT_PROPERTIES.containsKey(parts[1])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String sortBy = parts[1];
+            return new EmployeeCursor(sortBy, "desc".equals(parts[2]), parseValue(sortBy, parts[4]), Long.valueOf(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+    
+    String encode() {
+        String raw = String.join("|", VERSION, sortBy, descending ? "desc" : "asc",
+                String.valueOf(lastId), lastValue != null ? VALUE_PREFIX + lastValue : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static Object parseValue(String sortBy, String encoded) {
+        if (encoded.isEmpty()) {
+            return null;
+        }
+        if (!encoded.startsWith(VALUE_PREFIX)) {
+            throw new IllegalArgumentException("Invalid cursor value");
+        }
+        String value = encoded.substring(VALUE_PREFIX.length());
+        switch (SORT_PROPERTIES.get(sortBy)) {
+            case "id":
+                return Long.valueOf(value);
+            case "hireDate":
+            case "createdAt":
+                return LocalDateTime.parse(value);
+            default:
+                return value;
+        }
+    }
+    
+    String getSortBy() {
+        return sortBy;
+    }
+    
+    String getSortProperty() {
+        return SORT_PROPERTIES.get(sortBy);
+    }
+    
+    boolean isDescending() {
+        return descending;
+    }
+    
+    Object getLastValue() {
+        return lastValue;
+    }
+    
+    Long getLastId() {
+        return lastId;
+    }
+}
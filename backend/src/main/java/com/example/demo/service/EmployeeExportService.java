@@ -0,0 +1,112 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.EmployeeResponse;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams all employees as NDJSON or CSV without materializing the result set.
+ * Rows are read from a forward-only database stream as list rows rather than entities, so neither the
+ * persistence context nor the second-level cache grows with them and memory stays flat regardless of headcount.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmployeeExportService {
+    
+    private static final int FLUSH_EVERY_ROWS = 500;
+    
+    private static final String[] CSV_HEADER = {
+            "id", "firstName", "lastName", "email", "position", "department",
+            "isActive", "phoneNumber", "hireDate", "createdAt", "updatedAt"
+    };
+    
+    public enum Format {
+        NDJSON, CSV
+    }
+    
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * Write every employee to the output stream in the given format
+     *
+     * @return number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportEmployees(Format format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writeCsvRow(writer, CSV_HEADER);
+        }
+        
+        long rows = 0;
+        try (Stream<EmployeeResponse> employees = userRepository.streamListRowsByRole(User.Role.EMPLOYEE)) {
+            Iterator<EmployeeResponse> iterator = employees.iterator();
+            while (iterator.hasNext()) {
+                EmployeeResponse employee = iterator.next();
+                if (format == Format.CSV) {
+                    writeCsvRow(writer, toCsvValues(employee));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(employee));
+                    writer.write('\n');
+                }
+                
+                if (++rows % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        
+        writer.flush();
+        return rows;
+    }
+    
+    private String[] toCsvValues(EmployeeResponse employee) {
+        return new String[]{
+                String.valueOf(employee.getId()),
+                employee.getFirstName(),
+                employee.getLastName(),
+                employee.getEmail(),
+                employee.getPosition(),
+                employee.getDepartment(),
+                String.valueOf(employee.getIsActive()),
+                employee.getPhoneNumber(),
+                employee.getHireDate() != null ? employee.getHireDate().toString() : null,
+                employee.getCreatedAt() != null ? employee.getCreatedAt().toString() : null,
+                employee.getUpdatedAt() != null ? employee.getUpdatedAt().toString() : null
+        };
+    }
+    
+    private void writeCsvRow(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values[i]));
+        }
+        writer.write("\r\n");
+    }
+    
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.EmployeeImportResult;
+import com.example.demo.dto.EmployeeRequest;
+import com.example.demo.entity.User;
+import com.example.demo.event.EmployeeChangedEvent;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.DepartmentNameRegistry.DepartmentName;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk employee import from CSV or JSON files.
+ * <p>
+ * Applies the same rules as {@link EmployeeService#createEmployee} but set-based: departments are checked against the
+ * in-memory name registry, duplicate emails are found with one IN query per chunk, passwords are hashed on a bounded
+ * pool sized to the CPU count, and each chunk is persisted in its own transaction. Ids are allocated from the users
+ * sequence ahead of the inserts, so Hibernate sends each chunk as JDBC batches (hibernate.jdbc.batch_size).
+ * Because chunks commit independently, a failed import can be re-run with {@code resume=true}: rows whose
+ * email already exists are then reported as skipped instead of failed.
+ */
+@Service
+@Slf4j
+public class EmployeeImportService {
+    
+    private final UserRepository userRepository;
+    private final EmployeeService employeeService;
+    private final UserProfileService userProfileService;
+    private final DepartmentNameRegistry departmentNameRegistry;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final ExecutorService hashingExecutor;
+    
+    public EmployeeImportService(UserRepository userRepository,
+                                 EmployeeService employeeService,
+                                 UserProfileService userProfileService,
+                                 DepartmentNameRegistry departmentNameRegistry,
+                                 PasswordEncoder passwordEncoder,
+                                 PlatformTransactionManager transactionManager,
+                                 ApplicationEventPublisher eventPublisher,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.import.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.employeeService = employeeService;
+        this.userProfileService = userProfileService;
+        this.departmentNameRegistry = departmentNameRegistry;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        
+        // BCrypt is CPU bound: one thread per core, and callers run overflow work themselves instead of queueing forever
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashingExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "import-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdown();
+    }
+    
+    /**
+     * Import employees from a CSV (with a header row) or JSON array file
+     *
+     * @param resume treat rows whose email already exists as already imported
+     */
+    public EmployeeImportResult importEmployees(InputStream input, String filename, boolean resume) throws IOException {
+        List<EmployeeRequest> requests = parse(input, filename);
+        
+        EmployeeImportResult result = new EmployeeImportResult();
+        result.setTotal(requests.size());
+        
+        // In-file duplicate detection across all rows
+        Set<String> seenEmails = new HashSet<>();
+        List<Row> candidates = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            Row row = new Row(i + 1, requests.get(i));
+            String error = validate(row, seenEmails);
+            if (error == null) {
+                try {
+                    row.employee = employeeService.toNewEmployee(row.request, row.departmentId, null);
+                    candidates.add(row);
+                } catch (RuntimeException e) {
+                    error = e.getMessage();
+                }
+            }
+            if (error != null) {
+                fail(result, row, error);
+            }
+        }
+        
+        for (int from = 0; from < candidates.size(); from += chunkSize) {
+            importChunk(candidates.subList(from, Math.min(from + chunkSize, candidates.size())), resume, result);
+        }
+        
+        result.getErrors().sort(Comparator.comparingInt(EmployeeImportResult.RowError::getRow));
+        log.info("Employee import from {}: {} rows, {} imported, {} skipped, {} failed",
+                filename, result.getTotal(), result.getImported(), result.getSkipped(), result.getFailed());
+        return result;
+    }
+    
+    private String validate(Row row, Set<String> seenEmails) {
+        EmployeeRequest request = row.request;
+        Set<ConstraintViolation<EmployeeRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (request.getPassword() == null || request.getPassword().trim().isEmpty()) {
+            return "Password is required for creating new employees";
+        }
+        Optional<DepartmentName> department = departmentNameRegistry.resolve(request.getDepartment());
+        if (department.isEmpty()) {
+            return "Department '" + request.getDepartment() + "' does not exist";
+        }
+        request.setDepartment(department.get().name());
+        row.departmentId = department.get().id();
+        if (!seenEmails.add(normalizeEmail(request.getEmail()))) {
+            return "Duplicate email " + request.getEmail() + " in file";
+        }
+        return null;
+    }
+    
+    private void importChunk(List<Row> chunk, boolean resume, EmployeeImportResult result) {
+        // One IN query for the whole chunk instead of existsByEmail per row
+        Set<String> existing = userRepository.findExistingEmails(
+                        chunk.stream().map(row -> row.request.getEmail()).collect(Collectors.toList())).stream()
+                .map(EmployeeImportService::normalizeEmail)
+                .collect(Collectors.toSet());
+        
+        List<Row> toInsert = new ArrayList<>();
+        for (Row row : chunk) {
+            if (!existing.contains(normalizeEmail(row.request.getEmail()))) {
+                toInsert.add(row);
+            } else if (resume) {
+                result.setSkipped(result.getSkipped() + 1);
+            } else {
+                fail(result, row, "User with email " + row.request.getEmail() + " already exists");
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+        
+        // Hash passwords in parallel on the bounded pool
+        CompletableFuture.allOf(toInsert.stream()
+                .map(row -> CompletableFuture.runAsync(
+                        () -> row.employee.setPassword(passwordEncoder.encode(row.request.getPassword())),
+                        hashingExecutor))
+                .toArray(CompletableFuture[]::new))
+                .join();
+        
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<User> employees = userRepository.saveAll(toInsert.stream().map(row -> row.employee).toList());
+                insertProfilesAndPublishCreated(toInsert, employees);
+            });
+            result.setImported(result.getImported() + toInsert.size());
+        } catch (RuntimeException e) {
+            // A concurrent writer may have taken one of the emails; report the chunk so it can be resumed
+            log.warn("Employee import chunk of {} rows failed: {}", toInsert.size(), e.getMessage());
+            for (Row row : toInsert) {
+                fail(result, row, "Chunk insert failed: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Store the profiles under the allocated ids and publish creation events, inside the chunk transaction
+     * so listeners (search index) see the rows after commit
+     */
+    private void insertProfilesAndPublishCreated(List<Row> rows, List<User> employees) {
+        Map<Long, String> profilesById = new HashMap<>();
+        for (Row row : rows) {
+            profilesById.put(row.employee.getId(), row.request.getProfile());
+        }
+        userProfileService.insertProfiles(profilesById);
+        
+        for (User employee : employees) {
+            eventPublisher.publishEvent(new EmployeeChangedEvent(EmployeeChangedEvent.Type.CREATED, employee));
+        }
+    }
+    
+    // users.email is unique under MySQL's case-insensitive collation, so File@x.com and file@x.com are one address
+    private static String normalizeEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+    
+    private void fail(EmployeeImportResult result, Row row, String message) {
+        result.setFailed(result.getFailed() + 1);
+        result.getErrors().add(new EmployeeImportResult.RowError(row.number, row.request.getEmail(), message));
+    }
+    
+    private List<EmployeeRequest> parse(InputStream input, String filename) throws IOException {
+        PushbackReader reader = new PushbackReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), 1);
+        
+        // JSON when the file says so or starts with an array, CSV otherwise
+        int first = reader.read();
+        while (first != -1 && (Character.isWhitespace(first) || first == '\uFEFF')) {
+            first = reader.read();
+        }
+        if (first == -1) {
+            return new ArrayList<>();
+        }
+        reader.unread(first);
+        
+        if (first == '[' || (filename != null && filename.toLowerCase().endsWith(".json"))) {
+            try {
+                return objectMapper.readValue(reader, new TypeReference<List<EmployeeRequest>>() {});
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid JSON import file: " + e.getMessage(), e);
+            }
+        }
+        return parseCsv(reader);
+    }
+    
+    private List<EmployeeRequest> parseCsv(PushbackReader reader) throws IOException {
+        List<List<String>> records = readCsvRecords(reader);
+        if (records.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        List<String> header = records.get(0);
+        List<EmployeeRequest> requests = new ArrayList<>();
+        for (List<String> record : records.subList(1, records.size())) {
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < header.size() && i < record.size(); i++) {
+                String value = record.get(i).trim();
+                values.put(header.get(i).trim(), value.isEmpty() ? null : value);
+            }
+            requests.add(objectMapper.convertValue(values, EmployeeRequest.class));
+        }
+        return requests;
+    }
+    
+    /**
+     * Minimal RFC 4180 reader: comma separated, double-quoted fields may contain commas, quotes and newlines
+     */
+    private List<List<String>> readCsvRecords(PushbackReader reader) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.unread(next);
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+                fieldStarted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+                fieldStarted = true;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    int next = reader.read();
+                    if (next != '\n' && next != -1) {
+                        reader.unread(next);
+                    }
+                }
+                if (fieldStarted || field.length() > 0) {
+                    record.add(field.toString());
+                    records.add(record);
+                }
+                record = new ArrayList<>();
+                field.setLength(0);
+                fieldStarted = false;
+            } else {
+                field.append((char) c);
+                fieldStarted = true;
+            }
+        }
+        if (fieldStarted || field.length() > 0) {
+            record.add(field.toString());
+            records.add(record);
+        }
+        return records;
+    }
+    
+    private static class Row {
+        private final int number;
+        private final EmployeeRequest request;
+        private Long departmentId;
+        private User employee;
+        
+        Row(int number, EmployeeRequest request) {
+            this.number = number;
+            this.request = request;
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.EmployeeCursorPage;
 import com.example.demo.dto.EmployeeRequest;
 import com.example.demo.dto.EmployeeResponse;
 import com.example.demo.entity.User;
+import com.example.demo.event.EmployeeChangedEvent;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.search.EmployeeSearchIndex;
+import com.example.demo.service.DepartmentNameRegistry.DepartmentName;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,17 +22,28 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed("hr.service")
 public class EmployeeService {
     
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int SEARCH_LOAD_BATCH_SIZE = 1000;
+    
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final DepartmentService departmentService;
+    private final DepartmentNameRegistry departmentNameRegistry;
+    private final UserProfileService userProfileService;
+    private final EmployeeSearchIndex employeeSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Helper method to parse date string to LocalDateTime
@@ -49,53 +68,109 @@ public class EmployeeService {
     }
     
     /**
-     * Validate that the department exists in the Department table
+     * Validate that the department exists in the Department table and return its id and stored spelling
      */
-    private void validateDepartmentExists(String departmentName) {
+    DepartmentName resolveDepartment(String departmentName) {
         if (departmentName == null || departmentName.trim().isEmpty()) {
             throw new RuntimeException("Department name cannot be empty");
         }
         
-        try {
-            List<String> validDepartments = getAllDepartments();
-            if (!validDepartments.contains(departmentName)) {
-                throw new RuntimeException("Department '" + departmentName + "' does not exist. Valid departments are: " + String.join(", ", validDepartments));
-            }
-        } catch (Exception e) {
-            // If we can't validate against departments, log warning but don't fail
-            // This ensures backward compatibility if Department service is unavailable
-            System.err.println("Warning: Could not validate department '" + departmentName + "': " + e.getMessage());
-        }
+        return departmentNameRegistry.resolve(departmentName)
+                .orElseThrow(() -> new RuntimeException("Department '" + departmentName + "' does not exist"));
     }
     
+    // List methods read projected rows (no password hash, no profile) and never load entities
+    
+    @Transactional(readOnly = true)
     public List<EmployeeResponse> getAllEmployees() {
-        return userRepository.findByRole(User.Role.EMPLOYEE).stream()
-                .map(EmployeeResponse::fromUser)
-                .collect(Collectors.toList());
+        return userRepository.findListRowsByRole(User.Role.EMPLOYEE);
     }
     
+    @Transactional(readOnly = true)
     public Page<EmployeeResponse> getAllEmployees(Pageable pageable) {
-        return userRepository.findAll(pageable)
-                .map(user -> user.getRole() == User.Role.EMPLOYEE ? EmployeeResponse.fromUser(user) : null)
-                .map(response -> response); // Filter nulls would need custom implementation
+        return userRepository.findListRowsByRole(User.Role.EMPLOYEE, toUserPageable(pageable));
+    }
+    
+    /**
+     * Keyset page of employees. Seeks on (sort key, id) so deep pages cost the same as the first one.
+     *
+     * @param cursor continuation token from the previous page, or null/empty for the first page
+     */
+    @Transactional(readOnly = true)
+    public EmployeeCursorPage getEmployeesByCursor(String cursor, int size, String sortBy, String sortDir) {
+        EmployeeCursor position = (cursor == null || cursor.isEmpty())
+                ? EmployeeCursor.first(sortBy, sortDir.equalsIgnoreCase("desc"))
+                : EmployeeCursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        
+        // Fetch one extra row to learn whether another page exists without a COUNT(*)
+        List<EmployeeResponse> employees = userRepository.findListRowsByRoleAfter(User.Role.EMPLOYEE,
+                position.getSortProperty(), position.isDescending(), position.getLastValue(), position.getLastId(),
+                pageSize + 1);
+        boolean hasNext = employees.size() > pageSize;
+        if (hasNext) {
+            employees = employees.subList(0, pageSize);
+        }
+        
+        String nextCursor = null;
+        if (hasNext) {
+            EmployeeResponse last = employees.get(employees.size() - 1);
+            nextCursor = new EmployeeCursor(position.getSortBy(), position.isDescending(),
+                    sortValue(last, position.getSortProperty()), last.getId()).encode();
+        }
+        
+        return new EmployeeCursorPage(employees, nextCursor, hasNext, pageSize);
+    }
+    
+    private Object sortValue(EmployeeResponse employee, String sortProperty) {
+        switch (sortProperty) {
+            case "lastName":
+                return employee.getLastName();
+            case "email":
+                return employee.getEmail();
+            case "hireDate":
+                return employee.getHireDate();
+            case "createdAt":
+                return employee.getCreatedAt();
+            default:
+                return employee.getId();
+        }
+    }
+    
+    /**
+     * Translate API sort names to User properties ("name" sorts by last then first name)
+     */
+    private Pageable toUserPageable(Pageable pageable) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            if (order.getProperty().equals("name")) {
+                orders.add(order.withProperty("lastName"));
+                orders.add(order.withProperty("firstName"));
+            } else {
+                orders.add(order);
+            }
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(orders));
     }
     
+    @Transactional(readOnly = true)
     public EmployeeResponse getEmployeeById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Employee not found with id: " + id));
         if (user.getRole() != User.Role.EMPLOYEE) {
             throw new RuntimeException("User with id " + id + " is not an employee");
         }
-        return EmployeeResponse.fromUser(user);
+        return EmployeeResponse.fromUser(user, userProfileService.getProfile(user.getId()));
     }
     
+    @Transactional(readOnly = true)
     public EmployeeResponse getEmployeeByEmail(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Employee not found with email: " + email));
         if (user.getRole() != User.Role.EMPLOYEE) {
             throw new RuntimeException("User with email " + email + " is not an employee");
         }
-        return EmployeeResponse.fromUser(user);
+        return EmployeeResponse.fromUser(user, userProfileService.getProfile(user.getId()));
     }
     
     public EmployeeResponse createEmployee(EmployeeRequest request) {
@@ -109,24 +184,36 @@ public class EmployeeService {
         }
         
         // Validate department exists
-        validateDepartmentExists(request.getDepartment());
+        DepartmentName department = resolveDepartment(request.getDepartment());
+        request.setDepartment(department.name());
+        
+        User employee = toNewEmployee(request, department.id(), passwordEncoder.encode(request.getPassword()));
         
+        User savedEmployee = userRepository.save(employee);
+        userProfileService.saveProfile(savedEmployee.getId(), request.getProfile());
+        eventPublisher.publishEvent(new EmployeeChangedEvent(EmployeeChangedEvent.Type.CREATED, savedEmployee));
+        return EmployeeResponse.fromUser(savedEmployee, request.getProfile());
+    }
+    
+    /**
+     * Map a create request onto a new employee entity; shared with the bulk import.
+     * The profile is not part of the entity and is stored separately once the employee has an id.
+     */
+    User toNewEmployee(EmployeeRequest request, Long departmentId, String encodedPassword) {
         User employee = new User();
         employee.setFirstName(request.getFirstName());
         employee.setLastName(request.getLastName());
         employee.setPosition(request.getPosition());
         employee.setEmail(request.getEmail());
         employee.setDepartment(request.getDepartment());
+        employee.setDepartmentId(departmentId);
         employee.setRole(User.Role.EMPLOYEE);
         employee.setIsActive(request.getIsActive() != null ? request.getIsActive() : true);
         employee.setAvatarUrl(request.getAvatarUrl());
         employee.setPhoneNumber(request.getPhoneNumber());
         employee.setHireDate(parseDate(request.getHireDate()));
-        employee.setProfile(request.getProfile());
-        employee.setPassword(passwordEncoder.encode(request.getPassword()));
-        
-        User savedEmployee = userRepository.save(employee);
-        return EmployeeResponse.fromUser(savedEmployee);
+        employee.setPassword(encodedPassword);
+        return employee;
     }
     
     public EmployeeResponse updateEmployee(Long id, EmployeeRequest request) {
@@ -143,9 +230,14 @@ public class EmployeeService {
             throw new RuntimeException("User with email " + request.getEmail() + " already exists");
         }
         
-        // Validate department exists
-        validateDepartmentExists(request.getDepartment());
+        // Validate department exists; an unchanged department is kept even if it was deactivated since
+        if (!Objects.equals(request.getDepartment(), employee.getDepartment())) {
+            DepartmentName department = resolveDepartment(request.getDepartment());
+            request.setDepartment(department.name());
+            employee.setDepartmentId(department.id());
+        }
         
+        String previousEmail = employee.getEmail();
         employee.setFirstName(request.getFirstName());
         employee.setLastName(request.getLastName());
         employee.setPosition(request.getPosition());
@@ -154,14 +246,16 @@ public class EmployeeService {
         employee.setIsActive(request.getIsActive() != null ? request.getIsActive() : employee.getIsActive());
         employee.setAvatarUrl(request.getAvatarUrl());
         employee.setPhoneNumber(request.getPhoneNumber());
-        employee.setProfile(request.getProfile());
         
         if (request.getHireDate() != null) {
             employee.setHireDate(parseDate(request.getHireDate()));
         }
         
         User updatedEmployee = userRepository.save(employee);
-        return EmployeeResponse.fromUser(updatedEmployee);
+        userProfileService.saveProfile(id, request.getProfile());
+        eventPublisher.publishEvent(new EmployeeChangedEvent(EmployeeChangedEvent.Type.UPDATED, updatedEmployee,
+                previousEmail.equals(updatedEmployee.getEmail()) ? null : previousEmail));
+        return EmployeeResponse.fromUser(updatedEmployee, request.getProfile());
     }
     
     public void deleteEmployee(Long id) {
@@ -170,28 +264,46 @@ public class EmployeeService {
         if (user.getRole() != User.Role.EMPLOYEE) {
             throw new RuntimeException("User with id " + id + " is not an employee");
         }
+        userProfileService.deleteProfile(id);
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(EmployeeChangedEvent.Type.DELETED, user));
     }
     
+    /**
+     * Search employees, ranked by the in-memory trigram index.
+     * Falls back to the database LIKE query for terms shorter than three characters or while the index is building.
+     */
+    @Transactional(readOnly = true)
     public List<EmployeeResponse> searchEmployees(String searchTerm) {
-        return userRepository.searchEmployees(User.Role.EMPLOYEE, searchTerm).stream()
-                .map(EmployeeResponse::fromUser)
+        List<Long> rankedIds = employeeSearchIndex.search(searchTerm);
+        if (rankedIds == null) {
+            return userRepository.searchEmployeeListRows(User.Role.EMPLOYEE, searchTerm);
+        }
+        
+        // Load the matches by primary key and keep the index ranking
+        Map<Long, EmployeeResponse> employees = new HashMap<>();
+        for (int from = 0; from < rankedIds.size(); from += SEARCH_LOAD_BATCH_SIZE) {
+            List<Long> batch = rankedIds.subList(from, Math.min(from + SEARCH_LOAD_BATCH_SIZE, rankedIds.size()));
+            userRepository.findListRowsByRoleAndIdIn(User.Role.EMPLOYEE, batch)
+                    .forEach(employee -> employees.put(employee.getId(), employee));
+        }
+        return rankedIds.stream()
+                .map(employees::get)
+                .filter(employee -> employee != null)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<EmployeeResponse> getEmployeesByDepartment(String department) {
-        return userRepository.findByRole(User.Role.EMPLOYEE).stream()
-                .filter(user -> department.equals(user.getDepartment()))
-                .map(EmployeeResponse::fromUser)
-                .collect(Collectors.toList());
+        return userRepository.findListRowsByRoleAndDepartment(User.Role.EMPLOYEE, department);
     }
     
+    @Transactional(readOnly = true)
     public List<EmployeeResponse> getEmployeesByStatus(Boolean isActive) {
-        return userRepository.findByRoleAndIsActive(User.Role.EMPLOYEE, isActive).stream()
-                .map(EmployeeResponse::fromUser)
-                .collect(Collectors.toList());
+        return userRepository.findListRowsByRoleAndIsActive(User.Role.EMPLOYEE, isActive);
     }
     
+    @Transactional(readOnly = true)
     public Long getEmployeeCountByDepartment(String department) {
         return userRepository.countEmployeesByDepartment(User.Role.EMPLOYEE, department);
     }
@@ -200,23 +312,6 @@ public class EmployeeService {
      * Get all active department names for dropdown/selection purposes
      */
     public List<String> getAllDepartments() {
-        try {
-            // Get active departments from the Department service
-            return departmentService.getAllDepartments()
-                    .stream()
-                    .map(dept -> dept.getName())
-                    .sorted()
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            // Fallback to existing employee departments if Department service fails
-            List<String> departments = userRepository.findEmployeeDepartments(User.Role.EMPLOYEE);
-            
-            // If no departments exist, return default departments
-            if (departments.isEmpty()) {
-                return List.of("Engineering & Technology", "Human Resources", "Marketing & Sales", "Finance", "Operations");
-            }
-            
-            return departments;
-        }
+        return departmentNameRegistry.getNames();
     }
 }
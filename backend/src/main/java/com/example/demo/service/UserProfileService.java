@@ -0,0 +1,136 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.UserProfile;
+import com.example.demo.repository.UserProfileRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes employee profile text stored in the user_profiles table.
+ * <p>
+ * Profiles are only loaded by the endpoints that return a single employee. Text whose UTF-8 encoding is
+ * at least {@code app.profile.compress-threshold} long is stored gzip-compressed when that actually makes
+ * it smaller; shorter text is stored as plain UTF-8.
+ */
+@Service
+@Transactional
+public class UserProfileService {
+    
+    private static final String INSERT_PROFILE_SQL =
+            "INSERT INTO user_profiles (user_id, content, compressed, updated_at) VALUES (?, ?, ?, ?)";
+    
+    private final UserProfileRepository userProfileRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final long compressThreshold;
+    
+    public UserProfileService(UserProfileRepository userProfileRepository,
+                              JdbcTemplate jdbcTemplate,
+                              @Value("${app.profile.compress-threshold:512B}") DataSize compressThreshold) {
+        this.userProfileRepository = userProfileRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.compressThreshold = compressThreshold.toBytes();
+    }
+    
+    /**
+     * Profile text of the user, or null when the user has none
+     */
+    @Transactional(readOnly = true)
+    public String getProfile(Long userId) {
+        return userProfileRepository.findById(userId)
+                .map(profile -> decode(profile.getContent(), profile.getCompressed()))
+                .orElse(null);
+    }
+    
+    /**
+     * Store the profile text of the user; null or blank text removes the stored profile
+     */
+    public void saveProfile(Long userId, String text) {
+        if (text == null || text.isBlank()) {
+            deleteProfile(userId);
+            return;
+        }
+        UserProfile profile = userProfileRepository.findById(userId).orElseGet(() -> {
+            UserProfile created = new UserProfile();
+            created.setUserId(userId);
+            return created;
+        });
+        Encoded encoded = encode(text);
+        profile.setContent(encoded.content());
+        profile.setCompressed(encoded.compressed());
+        userProfileRepository.save(profile);
+    }
+    
+    public void deleteProfile(Long userId) {
+        userProfileRepository.deleteById(userId);
+    }
+    
+    /**
+     * Insert profiles of newly created users with one JDBC batch; blank texts are skipped.
+     * Used by bulk writes that bypass the entity manager (employee import, profile column migration).
+     */
+    public void insertProfiles(Map<Long, String> textsByUserId) {
+        List<Object[]> rows = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        textsByUserId.forEach((userId, text) -> {
+            if (text != null && !text.isBlank()) {
+                Encoded encoded = encode(text);
+                rows.add(new Object[]{userId, encoded.content(), encoded.compressed(), now});
+            }
+        });
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PROFILE_SQL, rows);
+        }
+    }
+    
+    private Encoded encode(String text) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length >= compressThreshold) {
+            byte[] gzip = gzip(utf8);
+            if (gzip.length < utf8.length) {
+                return new Encoded(gzip, true);
+            }
+        }
+        return new Encoded(utf8, false);
+    }
+    
+    private static String decode(byte[] content, Boolean compressed) {
+        return new String(Boolean.TRUE.equals(compressed) ? gunzip(content) : content, StandardCharsets.UTF_8);
+    }
+    
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+    
+    private static byte[] gunzip(byte[] data) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private record Encoded(byte[] content, boolean compressed) {
+    }
+}
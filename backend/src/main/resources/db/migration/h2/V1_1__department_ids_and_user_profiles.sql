@@ -0,0 +1,13 @@
+-- Department ids on users and the user_profiles table; see mysql/V1_1
+
+ALTER TABLE users ADD COLUMN department_id bigint;
+ALTER TABLE users ADD CONSTRAINT fk_users_department FOREIGN KEY (department_id) REFERENCES departments (id);
+CREATE INDEX idx_users_department_id_role ON users (department_id, role);
+
+CREATE TABLE user_profiles (
+    user_id bigint NOT NULL,
+    compressed boolean NOT NULL,
+    content blob NOT NULL,
+    updated_at timestamp(6),
+    PRIMARY KEY (user_id)
+);
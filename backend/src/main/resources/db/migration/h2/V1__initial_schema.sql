@@ -0,0 +1,53 @@
+-- Schema as created by Hibernate (ddl-auto=create-drop) before migrations took over; see mysql/V1
+
+CREATE TABLE departments (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    budget numeric(38,2),
+    created_at timestamp(6),
+    description TEXT,
+    established_date timestamp(6),
+    icon_color varchar(255),
+    is_active boolean,
+    location varchar(255),
+    manager_id bigint,
+    name varchar(255) NOT NULL,
+    updated_at timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_departments_name UNIQUE (name)
+);
+
+CREATE TABLE employees (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    avatar_url varchar(255),
+    created_at timestamp(6),
+    department varchar(255) NOT NULL,
+    email varchar(255) NOT NULL,
+    hire_date timestamp(6),
+    name varchar(255) NOT NULL,
+    phone_number varchar(255),
+    position varchar(255) NOT NULL,
+    status enum ('ACTIVE','INACTIVE','ON_LEAVE','TERMINATED') NOT NULL,
+    updated_at timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_employees_email UNIQUE (email)
+);
+
+CREATE TABLE users (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    avatar_url varchar(255),
+    created_at timestamp(6),
+    department varchar(255),
+    email varchar(255) NOT NULL,
+    first_name varchar(255),
+    hire_date timestamp(6),
+    is_active boolean,
+    last_name varchar(255),
+    password varchar(255) NOT NULL,
+    phone_number varchar(255),
+    position varchar(255),
+    profile TEXT,
+    role enum ('ADMIN','EMPLOYEE','MANAGER'),
+    updated_at timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
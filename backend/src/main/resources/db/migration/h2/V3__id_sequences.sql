@@ -0,0 +1,13 @@
+-- Id generators for users, departments and employees (@SequenceGenerator, allocationSize 50).
+-- Each value handed out is the first id of a block of 50 (pooled-lo), so the increment must match.
+-- An upgraded H2 file database already has rows, so like the MySQL migration each sequence continues after the
+-- highest existing id.
+
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM users);
+
+CREATE SEQUENCE departments_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE departments_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM departments);
+
+CREATE SEQUENCE employees_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE employees_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM employees);
@@ -0,0 +1,15 @@
+-- Users reference their department by id (the name column stays for display); existing rows are filled in
+-- by DepartmentIdBackfill on startup. Profiles move to their own table; ProfileColumnMigration copies the
+-- text left in users.profile and clears it.
+
+ALTER TABLE users ADD COLUMN department_id bigint;
+ALTER TABLE users ADD CONSTRAINT fk_users_department FOREIGN KEY (department_id) REFERENCES departments (id);
+CREATE INDEX idx_users_department_id_role ON users (department_id, role);
+
+CREATE TABLE user_profiles (
+    user_id bigint NOT NULL,
+    compressed bit NOT NULL,
+    content blob NOT NULL,
+    updated_at datetime(6),
+    PRIMARY KEY (user_id)
+) ENGINE=InnoDB;
@@ -0,0 +1,54 @@
+-- Schema as created by Hibernate (ddl-auto=update) before migrations took over.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE departments (
+    id bigint NOT NULL AUTO_INCREMENT,
+    budget decimal(38,2),
+    created_at datetime(6),
+    description TEXT,
+    established_date datetime(6),
+    icon_color varchar(255),
+    is_active bit,
+    location varchar(255),
+    manager_id bigint,
+    name varchar(255) NOT NULL,
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_departments_name UNIQUE (name)
+) ENGINE=InnoDB;
+
+CREATE TABLE employees (
+    id bigint NOT NULL AUTO_INCREMENT,
+    avatar_url varchar(255),
+    created_at datetime(6),
+    department varchar(255) NOT NULL,
+    email varchar(255) NOT NULL,
+    hire_date datetime(6),
+    name varchar(255) NOT NULL,
+    phone_number varchar(255),
+    position varchar(255) NOT NULL,
+    status enum ('ACTIVE','INACTIVE','ON_LEAVE','TERMINATED') NOT NULL,
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_employees_email UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE users (
+    id bigint NOT NULL AUTO_INCREMENT,
+    avatar_url varchar(255),
+    created_at datetime(6),
+    department varchar(255),
+    email varchar(255) NOT NULL,
+    first_name varchar(255),
+    hire_date datetime(6),
+    is_active bit,
+    last_name varchar(255),
+    password varchar(255) NOT NULL,
+    phone_number varchar(255),
+    position varchar(255),
+    profile TEXT,
+    role enum ('ADMIN','EMPLOYEE','MANAGER'),
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE=InnoDB;
@@ -0,0 +1,22 @@
+-- Secondary indexes for the queries in UserRepository and DepartmentRepository.
+-- Every employee query filters on role first; id is the tie-breaker of all keyset pages.
+
+-- Employee lists and pages in id order
+CREATE INDEX idx_users_role_id ON users (role, id);
+
+-- Keyset pages sorted by last name, hire date or creation time (UserRepositoryImpl.seekQuery)
+CREATE INDEX idx_users_role_last_name ON users (role, last_name, id);
+CREATE INDEX idx_users_role_hire_date ON users (role, hire_date, id);
+CREATE INDEX idx_users_role_created_at ON users (role, created_at, id);
+
+-- Status filter (findListRowsByRoleAndIsActive)
+CREATE INDEX idx_users_role_is_active ON users (role, is_active, id);
+
+-- Active department list and departments by manager
+CREATE INDEX idx_departments_is_active ON departments (is_active, id);
+CREATE INDEX idx_departments_manager_id ON departments (manager_id);
+
+-- Case-insensitive name lookups (findByNameIgnoreCase, existsByNameIgnoreCase) compare a generated
+-- upper-case key; unlike an index on the expression UPPER(name), this is usable on H2 as well
+ALTER TABLE departments ADD COLUMN name_key varchar(255) GENERATED ALWAYS AS (UPPER(name)) VIRTUAL;
+CREATE INDEX idx_departments_name_key ON departments (name_key);
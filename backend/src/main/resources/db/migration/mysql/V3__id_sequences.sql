@@ -0,0 +1,15 @@
+-- Id generators for users, departments and employees (@SequenceGenerator, allocationSize 50).
+-- MySQL has no sequences, so Hibernate keeps each one as a single-row table and hands out blocks of 50 ids
+-- per update (pooled-lo: next_val is the first id of the next block). Unlike AUTO_INCREMENT this lets
+-- Hibernate know ids before the insert and batch the statements.
+-- The AUTO_INCREMENT attributes stay in place but are no longer used by the application; anything that
+-- inserts rows with plain SQL must take ids from these tables as well.
+
+CREATE TABLE users_seq (next_val bigint) ENGINE=InnoDB;
+INSERT INTO users_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM users;
+
+CREATE TABLE departments_seq (next_val bigint) ENGINE=InnoDB;
+INSERT INTO departments_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM departments;
+
+CREATE TABLE employees_seq (next_val bigint) ENGINE=InnoDB;
+INSERT INTO employees_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM employees;
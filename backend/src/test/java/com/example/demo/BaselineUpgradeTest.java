@@ -0,0 +1,113 @@
+package com.example.demo;
+
+import com.example.demo.dto.DepartmentRequest;
+import com.example.demo.dto.DepartmentResponse;
+import com.example.demo.dto.EmployeeRequest;
+import com.example.demo.dto.EmployeeResponse;
+import com.example.demo.service.DepartmentService;
+import com.example.demo.service.EmployeeService;
+import com.example.demo.service.UserProfileService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A database created by ddl-auto=update before migrations existed has exactly the V1 schema. The application
+ * baselines it at V1, applies the later migrations, passes Hibernate validation, and the startup runners fill in
+ * department ids and move the inline profiles to user_profiles. New rows take ids after the legacy ones.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + BaselineUpgradeTest.URL)
+@ActiveProfiles("test")
+class BaselineUpgradeTest {
+
+    static final String URL = "jdbc:h2:mem:baseline-upgrade;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserProfileService userProfileService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @BeforeAll
+    static void createPreMigrationDatabase() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "password")) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/h2/V1__initial_schema.sql"));
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("INSERT INTO departments (name, is_active) VALUES ('Engineering', TRUE)");
+                statement.execute("INSERT INTO users (email, password, first_name, last_name, role, is_active) " +
+                        "VALUES ('admin@legacy.com', 'hash', 'Legacy', 'Admin', 'ADMIN', TRUE)");
+                statement.execute("INSERT INTO users (email, password, first_name, last_name, role, is_active, " +
+                        "department, profile) VALUES ('dev@legacy.com', 'hash', 'Legacy', 'Developer', 'EMPLOYEE', " +
+                        "TRUE, 'Engineering', 'Writes the payroll exports')");
+            }
+        }
+    }
+
+    @Test
+    void baselinedDatabaseReceivesLaterMigrations() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" " +
+                        "WHERE \"success\" AND \"version\" IS NOT NULL ORDER BY \"installed_rank\"",
+                String.class);
+        assertThat(versions).containsExactly("1", "1.1", "2", "3");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT \"type\" FROM \"flyway_schema_history\" WHERE \"version\" = '1'", String.class))
+                .isEqualTo("BASELINE");
+    }
+
+    @Test
+    void legacyRowsAreBackfilledOnStartup() {
+        Long engineering = jdbcTemplate.queryForObject(
+                "SELECT id FROM departments WHERE name = 'Engineering'", Long.class);
+        Long developer = jdbcTemplate.queryForObject(
+                "SELECT id FROM users WHERE email = 'dev@legacy.com'", Long.class);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT department_id FROM users WHERE id = ?", Long.class, developer))
+                .isEqualTo(engineering);
+        assertThat(jdbcTemplate.queryForObject("SELECT profile FROM users WHERE id = ?", String.class, developer))
+                .isNull();
+        assertThat(userProfileService.getProfile(developer)).isEqualTo("Writes the payroll exports");
+    }
+
+    @Test
+    void rowsInsertedAfterTheUpgradeGetIdsAfterTheLegacyOnes() {
+        Long legacyDepartments = jdbcTemplate.queryForObject("SELECT MAX(id) FROM departments", Long.class);
+        Long legacyUsers = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+
+        DepartmentRequest departmentRequest = new DepartmentRequest();
+        departmentRequest.setName("Finance");
+        departmentRequest.setDescription("Created after the upgrade");
+        DepartmentResponse department = departmentService.createDepartment(departmentRequest);
+
+        EmployeeRequest employeeRequest = new EmployeeRequest();
+        employeeRequest.setFirstName("New");
+        employeeRequest.setLastName("Hire");
+        employeeRequest.setPosition("Accountant");
+        employeeRequest.setEmail("new@legacy.com");
+        employeeRequest.setDepartment("Finance");
+        employeeRequest.setPassword("secret1");
+        EmployeeResponse employee = employeeService.createEmployee(employeeRequest);
+
+        assertThat(department.getId()).isGreaterThan(legacyDepartments);
+        assertThat(employee.getId()).isGreaterThan(legacyUsers);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demo;
+
+import com.example.demo.config.DepartmentIdBackfill;
+import com.example.demo.config.SecondLevelCacheRegions;
+import com.example.demo.dto.DepartmentRequest;
+import com.example.demo.service.DepartmentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The backfill fills department_id from the department name in consecutive id ranges of 1000, one UPDATE per
+ * range, and leaves rows whose name matches no department empty.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DepartmentIdBackfillTest {
+
+    // Far above the ids the other tests generate, so the explicit ids never collide with theirs
+    private static final long FIRST_ID = 900_000_000L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SecondLevelCacheRegions secondLevelCacheRegions;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    private String department;
+    private Long departmentId;
+
+    @BeforeEach
+    void createLegacyRows() {
+        DepartmentRequest request = new DepartmentRequest();
+        request.setName("Backfill " + UUID.randomUUID());
+        request.setDescription("Created by " + DepartmentIdBackfillTest.class.getSimpleName());
+        departmentId = departmentService.createDepartment(request).getId();
+        department = request.getName();
+
+        // Spread over three ranges, the last one only partly
+        insertLegacyUser(FIRST_ID, department);
+        insertLegacyUser(FIRST_ID + 999, department);
+        insertLegacyUser(FIRST_ID + 1000, "No such department " + UUID.randomUUID());
+        insertLegacyUser(FIRST_ID + 2500, department);
+    }
+
+    @AfterEach
+    void deleteLegacyRows() {
+        jdbcTemplate.update("DELETE FROM users WHERE id >= ?", FIRST_ID);
+    }
+
+    @Test
+    void fillsMatchingRowsOneIdRangeAtATime() {
+        RecordingJdbcTemplate recording = new RecordingJdbcTemplate(dataSource);
+
+        new DepartmentIdBackfill(recording, secondLevelCacheRegions).run(null);
+
+        assertThat(recording.updatedRanges).containsExactly(
+                List.of(FIRST_ID, FIRST_ID + 1000),
+                List.of(FIRST_ID + 1000, FIRST_ID + 2000),
+                List.of(FIRST_ID + 2000, FIRST_ID + 3000));
+        assertThat(departmentIdOf(FIRST_ID)).isEqualTo(departmentId);
+        assertThat(departmentIdOf(FIRST_ID + 999)).isEqualTo(departmentId);
+        assertThat(departmentIdOf(FIRST_ID + 2500)).isEqualTo(departmentId);
+        assertThat(departmentIdOf(FIRST_ID + 1000)).isNull();
+    }
+
+    @Test
+    void secondRunOnlyRetriesTheUnmatchedRows() {
+        new DepartmentIdBackfill(jdbcTemplate, secondLevelCacheRegions).run(null);
+        RecordingJdbcTemplate recording = new RecordingJdbcTemplate(dataSource);
+
+        new DepartmentIdBackfill(recording, secondLevelCacheRegions).run(null);
+
+        assertThat(recording.updatedRanges).containsExactly(List.of(FIRST_ID + 1000, FIRST_ID + 2000));
+    }
+
+    private void insertLegacyUser(long id, String departmentName) {
+        jdbcTemplate.update("INSERT INTO users (id, email, password, first_name, last_name, role, is_active, " +
+                        "department) VALUES (?, ?, 'hash', 'Legacy', 'Row', 'EMPLOYEE', TRUE, ?)",
+                id, "backfill-" + UUID.randomUUID() + "@example.com", departmentName);
+    }
+
+    private Long departmentIdOf(long userId) {
+        return jdbcTemplate.queryForObject("SELECT department_id FROM users WHERE id = ?", Long.class, userId);
+    }
+
+    // Records the id range of each batch UPDATE
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+
+        private final List<List<Object>> updatedRanges = new ArrayList<>();
+
+        RecordingJdbcTemplate(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            if (sql.startsWith("UPDATE users")) {
+                updatedRanges.add(List.of(args));
+            }
+            return super.update(sql, args);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.demo;
+
+import com.example.demo.cache.ResourceVersionTracker;
+import com.example.demo.dto.DepartmentRequest;
+import com.example.demo.dto.DepartmentResponse;
+import com.example.demo.dto.EmployeeRequest;
+import com.example.demo.event.DepartmentChangedEvent;
+import com.example.demo.event.EmployeeChangedEvent;
+import com.example.demo.search.EmployeeSearchIndex;
+import com.example.demo.service.DepartmentService;
+import com.example.demo.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Renaming a department updates the name on all its employees with one statement and publishes a single
+ * department event, from which the employee search index, list tags and cached list bodies are refreshed.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class DepartmentRenameTest {
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeSearchIndex employeeSearchIndex;
+
+    @Autowired
+    private ResourceVersionTracker resourceVersionTracker;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    private DepartmentResponse department;
+    private final List<Long> employeeIds = new ArrayList<>();
+
+    @BeforeEach
+    void createDepartmentWithEmployees() throws InterruptedException {
+        DepartmentRequest request = departmentRequest("Oldname" + token());
+        department = departmentService.createDepartment(request);
+        for (int i = 0; i < 3; i++) {
+            EmployeeRequest employee = new EmployeeRequest();
+            employee.setFirstName("Rename");
+            employee.setLastName("Member");
+            employee.setPosition("Tester");
+            employee.setEmail("rename-" + UUID.randomUUID() + "@example.com");
+            employee.setDepartment(request.getName());
+            employee.setPassword("secret1");
+            employeeIds.add(employeeService.createEmployee(employee).getId());
+        }
+        // The index builds in the background after startup
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!employeeSearchIndex.isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        applicationEvents.clear();
+    }
+
+    @Test
+    void renameIsOneDepartmentEventAndReachesEveryEmployee() {
+        String oldName = department.getName();
+        String newName = "Newname" + token();
+        String employeesTag = resourceVersionTracker.employeesETag();
+
+        departmentService.updateDepartment(department.getId(), departmentRequest(newName));
+
+        assertThat(applicationEvents.stream(EmployeeChangedEvent.class)).isEmpty();
+        assertThat(applicationEvents.stream(DepartmentChangedEvent.class))
+                .singleElement()
+                .satisfies(event -> assertThat(event.getPreviousName()).isEqualTo(oldName));
+
+        for (Long id : employeeIds) {
+            assertThat(employeeService.getEmployeeById(id).getDepartment()).isEqualTo(newName);
+        }
+        assertThat(employeeSearchIndex.search(newName)).containsExactlyInAnyOrderElementsOf(employeeIds);
+        assertThat(employeeSearchIndex.search(oldName)).isEmpty();
+        assertThat(resourceVersionTracker.employeesETag()).isNotEqualTo(employeesTag);
+    }
+
+    @Test
+    void updateWithoutRenameLeavesEmployeesAlone() {
+        String employeesTag = resourceVersionTracker.employeesETag();
+        DepartmentRequest request = departmentRequest(department.getName());
+        request.setLocation("Second floor");
+
+        departmentService.updateDepartment(department.getId(), request);
+
+        assertThat(applicationEvents.stream(DepartmentChangedEvent.class))
+                .singleElement()
+                .satisfies(event -> assertThat(event.isRename()).isFalse());
+        assertThat(resourceVersionTracker.employeesETag()).isEqualTo(employeesTag);
+    }
+
+    private static DepartmentRequest departmentRequest(String name) {
+        DepartmentRequest request = new DepartmentRequest();
+        request.setName(name);
+        request.setDescription("Created by " + DepartmentRenameTest.class.getSimpleName());
+        return request;
+    }
+
+    // Letters only, so the name is one searchable word that no other test uses
+    private static String token() {
+        return UUID.randomUUID().toString().replaceAll("[^a-f]", "");
+    }
+}
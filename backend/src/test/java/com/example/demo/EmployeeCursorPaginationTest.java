@@ -0,0 +1,104 @@
+package com.example.demo;
+
+import com.example.demo.dto.EmployeeCursorPage;
+import com.example.demo.dto.EmployeeResponse;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset pages visit every employee exactly once in (sort value, id) order, with ties on the sort value broken
+ * by id and null sort values ordered before all others, in both directions.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EmployeeCursorPaginationTest {
+
+    private static final Comparator<EmployeeResponse> BY_LAST_NAME =
+            Comparator.comparing(EmployeeResponse::getLastName, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(EmployeeResponse::getId);
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @BeforeEach
+    void createEmployees() {
+        // Ties and nulls straddle page boundaries at page size 2
+        for (String lastName : new String[]{"Tie", null, "Tie", "Alpha", null, "Tie", null, "Zulu"}) {
+            User user = new User();
+            user.setEmail("cursor-" + UUID.randomUUID() + "@example.com");
+            user.setPassword("hash");
+            user.setFirstName("Cursor");
+            user.setLastName(lastName);
+            user.setRole(User.Role.EMPLOYEE);
+            created.add(userRepository.save(user).getId());
+        }
+    }
+
+    @AfterEach
+    void deleteEmployees() {
+        userRepository.deleteAllById(created);
+    }
+
+    @Test
+    void ascendingPagesVisitEveryEmployeeOnceNullsFirst() {
+        List<EmployeeResponse> visited = walk("asc");
+
+        assertThat(visited).isSortedAccordingTo(BY_LAST_NAME);
+        assertVisitedOnceIncludingCreated(visited);
+    }
+
+    @Test
+    void descendingPagesVisitEveryEmployeeOnceNullsLast() {
+        List<EmployeeResponse> visited = walk("desc");
+
+        assertThat(visited).isSortedAccordingTo(BY_LAST_NAME.reversed());
+        assertVisitedOnceIncludingCreated(visited);
+    }
+
+    @Test
+    void tiesAreBrokenById() {
+        List<Long> tied = walk("asc").stream()
+                .filter(employee -> "Tie".equals(employee.getLastName()))
+                .map(EmployeeResponse::getId)
+                .toList();
+
+        assertThat(tied).isSorted().hasSizeGreaterThanOrEqualTo(3);
+    }
+
+    private List<EmployeeResponse> walk(String direction) {
+        List<EmployeeResponse> visited = new ArrayList<>();
+        String cursor = "";
+        EmployeeCursorPage page;
+        do {
+            page = employeeService.getEmployeesByCursor(cursor, 2, "name", direction);
+            visited.addAll(page.getEmployees());
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+        return visited;
+    }
+
+    private void assertVisitedOnceIncludingCreated(List<EmployeeResponse> visited) {
+        List<Long> ids = visited.stream().map(EmployeeResponse::getId).toList();
+        assertThat(ids).doesNotHaveDuplicates().containsAll(created);
+        assertThat(ids).hasSize(employeeService.getAllEmployees().size());
+    }
+}
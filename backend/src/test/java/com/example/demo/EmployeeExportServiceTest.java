@@ -0,0 +1,89 @@
+package com.example.demo;
+
+import com.example.demo.dto.DepartmentRequest;
+import com.example.demo.dto.EmployeeRequest;
+import com.example.demo.entity.User;
+import com.example.demo.service.DepartmentService;
+import com.example.demo.service.EmployeeExportService;
+import com.example.demo.service.EmployeeService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports stream list rows, so exported employees are not put in the "users" second-level cache region.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EmployeeExportServiceTest {
+
+    @Autowired
+    private EmployeeExportService employeeExportService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private EmployeeRequest request;
+    private Long employeeId;
+
+    @BeforeEach
+    void createEmployee() {
+        DepartmentRequest departmentRequest = new DepartmentRequest();
+        departmentRequest.setName("Export " + UUID.randomUUID());
+        departmentRequest.setDescription("Created by " + EmployeeExportServiceTest.class.getSimpleName());
+        departmentService.createDepartment(departmentRequest);
+
+        request = new EmployeeRequest();
+        request.setFirstName("Export");
+        request.setLastName("Row");
+        request.setPosition("Tester, \"senior\"");
+        request.setEmail("export-" + UUID.randomUUID() + "@example.com");
+        request.setDepartment(departmentRequest.getName());
+        request.setPassword("secret1");
+        employeeId = employeeService.createEmployee(request).getId();
+        entityManagerFactory.getCache().evict(User.class);
+    }
+
+    @Test
+    void ndjsonExportLeavesTheSecondLevelCacheAlone() throws IOException {
+        String ndjson = export(EmployeeExportService.Format.NDJSON);
+
+        assertThat(ndjson.lines())
+                .anySatisfy(line -> assertThat(line)
+                        .contains("\"id\":" + employeeId + ",")
+                        .contains("\"email\":\"" + request.getEmail() + "\""));
+        assertThat(entityManagerFactory.getCache().contains(User.class, employeeId)).isFalse();
+    }
+
+    @Test
+    void csvExportQuotesValuesThatNeedIt() throws IOException {
+        String csv = export(EmployeeExportService.Format.CSV);
+
+        assertThat(csv).startsWith("id,firstName,lastName,email,position,department,");
+        assertThat(csv).contains(employeeId + ",Export,Row," + request.getEmail() + ",\"Tester, \"\"senior\"\"\","
+                + request.getDepartment() + ",true,");
+        assertThat(entityManagerFactory.getCache().contains(User.class, employeeId)).isFalse();
+    }
+
+    private String export(EmployeeExportService.Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        employeeExportService.exportEmployees(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
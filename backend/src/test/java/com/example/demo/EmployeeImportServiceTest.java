@@ -0,0 +1,189 @@
+package com.example.demo;
+
+import com.example.demo.dto.DepartmentRequest;
+import com.example.demo.dto.EmployeeImportResult;
+import com.example.demo.dto.EmployeeResponse;
+import com.example.demo.service.DepartmentService;
+import com.example.demo.service.EmployeeImportService;
+import com.example.demo.service.EmployeeService;
+import com.example.demo.service.UserProfileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * CSV and JSON imports: parsing, per-row validation, duplicates within the file and against the database,
+ * and chunks that commit independently so a failed file can be resumed.
+ */
+@SpringBootTest(properties = "app.import.chunk-size=2")
+@ActiveProfiles("test")
+class EmployeeImportServiceTest {
+
+    private static final String HEADER = "firstName,lastName,position,email,department,password,profile\r\n";
+
+    @Autowired
+    private EmployeeImportService employeeImportService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private UserProfileService userProfileService;
+
+    private String department;
+    private String prefix;
+
+    @BeforeEach
+    void createDepartment() {
+        DepartmentRequest request = new DepartmentRequest();
+        request.setName("Import " + UUID.randomUUID());
+        request.setDescription("Created by " + EmployeeImportServiceTest.class.getSimpleName());
+        departmentService.createDepartment(request);
+        department = request.getName();
+        prefix = "import-" + UUID.randomUUID();
+    }
+
+    @Test
+    void csvWithBomQuotedFieldsAndCrlfIsImported() throws IOException {
+        String csv = "\uFEFF" + HEADER
+                + row("Ada", "one", "\"Leads \"\"core\"\", payroll\r\nand reporting\"") + "\r\n"
+                + row("Grace", "two", "") + "\r\n";
+
+        EmployeeImportResult result = importFile(csv, "employees.csv", false);
+
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).isEmpty();
+        EmployeeResponse ada = employeeService.getEmployeeByEmail(email("one"));
+        assertThat(ada.getDepartment()).isEqualTo(department);
+        assertThat(userProfileService.getProfile(ada.getId())).isEqualTo("Leads \"core\", payroll\r\nand reporting");
+        assertThat(userProfileService.getProfile(employeeService.getEmployeeByEmail(email("two")).getId())).isNull();
+    }
+
+    @Test
+    void jsonArrayIsImportedWhateverTheFileName() throws IOException {
+        String json = "  [{\"firstName\":\"Ada\",\"lastName\":\"Json\",\"position\":\"Engineer\","
+                + "\"email\":\"" + email("json") + "\",\"department\":\"" + department + "\",\"password\":\"secret1\"}]";
+
+        EmployeeImportResult result = importFile(json, "upload.txt", false);
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(employeeService.getEmployeeByEmail(email("json")).getLastName()).isEqualTo("Json");
+    }
+
+    @Test
+    void invalidRowsAreReportedWithTheirNumbers() throws IOException {
+        String csv = HEADER
+                + row("Ada", "valid", "") + "\n"
+                + "Bob,Row,Engineer," + email("nopassword") + "," + department + ",,\n"
+                + "Cy,Row,Engineer," + email("nodepartment") + ",No such department,secret1,\n"
+                + "Di,Row,Engineer,not-an-email," + department + ",secret1,\n"
+                + ",Row,Engineer," + email("nofirstname") + "," + department + ",secret1,\n";
+
+        EmployeeImportResult result = importFile(csv, "employees.csv", false);
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(4);
+        assertThat(result.getErrors())
+                .extracting(EmployeeImportResult.RowError::getRow, EmployeeImportResult.RowError::getMessage)
+                .containsExactly(
+                        tuple(2, "Password is required for creating new employees"),
+                        tuple(3, "Department 'No such department' does not exist"),
+                        tuple(4, "email: Email should be valid"),
+                        tuple(5, "firstName: First name is required"));
+    }
+
+    @Test
+    void emailsRepeatedInTheFileIgnoringCaseFail() throws IOException {
+        String csv = HEADER
+                + row("Ada", "dup", "") + "\n"
+                + "Ada,Again,Engineer," + email("dup").toUpperCase() + "," + department + ",secret1,\n";
+
+        EmployeeImportResult result = importFile(csv, "employees.csv", false);
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement()
+                .satisfies(error -> {
+                    assertThat(error.getRow()).isEqualTo(2);
+                    assertThat(error.getMessage()).startsWith("Duplicate email");
+                });
+    }
+
+    @Test
+    void existingEmailsFailUnlessResuming() throws IOException {
+        importFile(HEADER + row("Ada", "existing", "") + "\n", "employees.csv", false);
+        String csv = HEADER + row("Ada", "existing", "") + "\n" + row("Bob", "new", "") + "\n";
+
+        EmployeeImportResult failed = importFile(csv, "employees.csv", false);
+        assertThat(failed.getImported()).isEqualTo(1);
+        assertThat(failed.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getMessage()).endsWith("already exists"));
+
+        EmployeeImportResult resumed = importFile(csv, "employees.csv", true);
+        assertThat(resumed.getSkipped()).isEqualTo(2);
+        assertThat(resumed.getFailed()).isZero();
+    }
+
+    @Test
+    void aFailedChunkDoesNotRollBackTheOthers() throws IOException {
+        // The database rejects the 300-character avatar URL; with chunks of two only rows 3 and 4 go with it
+        String tooLong = "https://example.com/" + "a".repeat(280);
+        String json = "[" + jsonRow("c1", null) + "," + jsonRow("c2", null) + ","
+                + jsonRow("c3", tooLong) + "," + jsonRow("c4", null) + "," + jsonRow("c5", null) + "]";
+
+        EmployeeImportResult result = importFile(json, "employees.json", false);
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getErrors())
+                .extracting(EmployeeImportResult.RowError::getRow)
+                .containsExactly(3, 4);
+        assertThat(result.getErrors()).allSatisfy(error -> assertThat(error.getMessage()).startsWith("Chunk insert failed"));
+        assertThatThrownBy(() -> employeeService.getEmployeeByEmail(email("c4"))).isInstanceOf(RuntimeException.class);
+        assertThat(employeeService.getEmployeeByEmail(email("c5")).getId()).isNotNull();
+
+        EmployeeImportResult resumed = importFile(json.replace(tooLong, "https://example.com/ok.png"),
+                "employees.json", true);
+        assertThat(resumed.getImported()).isEqualTo(2);
+        assertThat(resumed.getSkipped()).isEqualTo(3);
+    }
+
+    @Test
+    void malformedJsonIsRejected() {
+        assertThatThrownBy(() -> importFile("[{\"firstName\":", "employees.json", false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid JSON import file");
+    }
+
+    private EmployeeImportResult importFile(String content, String filename, boolean resume) throws IOException {
+        return employeeImportService.importEmployees(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), filename, resume);
+    }
+
+    private String row(String firstName, String key, String profile) {
+        return firstName + ",Row,Engineer," + email(key) + "," + department + ",secret1," + profile;
+    }
+
+    private String jsonRow(String key, String avatarUrl) {
+        return "{\"firstName\":\"Chunk\",\"lastName\":\"Row\",\"position\":\"Engineer\",\"email\":\"" + email(key)
+                + "\",\"department\":\"" + department + "\",\"password\":\"secret1\""
+                + (avatarUrl != null ? ",\"avatarUrl\":\"" + avatarUrl + "\"" : "") + "}";
+    }
+
+    private String email(String key) {
+        return prefix + "-" + key + "@example.com";
+    }
+}
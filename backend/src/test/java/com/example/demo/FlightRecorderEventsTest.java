@@ -0,0 +1,116 @@
+package com.example.demo;
+
+import com.example.demo.jfr.FlightRecorderEndpoint;
+import com.example.demo.service.DepartmentService;
+import com.example.demo.service.EmployeeService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The application's flight recorder events are emitted from the service and security paths,
+ * and the actuator endpoint writes recordings to the dump directory.
+ */
+@SpringBootTest(properties = "app.jfr.dump-directory=${java.io.tmpdir}/hr-recordings-test")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FlightRecorderEventsTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private FlightRecorderEndpoint flightRecorderEndpoint;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void serviceRepositoryAndSecurityEventsAreRecorded(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            for (String event : List.of("ServiceCall", "RepositoryCall", "UserLoad", "DepartmentEnrichment")) {
+                recording.enable("com.example.demo." + event).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+
+            int employees = employeeService.getAllEmployees().size();
+            departmentService.getAllDepartments();
+            assertThatThrownBy(() -> userDetailsService.loadUserByUsername("nobody@example.com"))
+                    .isInstanceOf(UsernameNotFoundException.class);
+
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertThat(events).anySatisfy(event -> {
+                assertThat(event.getEventType().getName()).isEqualTo("com.example.demo.ServiceCall");
+                assertThat(event.getString("service")).isEqualTo("EmployeeService");
+                assertThat(event.getString("method")).isEqualTo("getAllEmployees");
+                assertThat(event.getInt("entityCount")).isEqualTo(employees);
+            });
+            assertThat(events).anySatisfy(event -> {
+                assertThat(event.getEventType().getName()).isEqualTo("com.example.demo.RepositoryCall");
+                assertThat(event.getString("repository")).isEqualTo("UserRepository");
+                assertThat(event.getString("method")).isEqualTo("findByEmail");
+            });
+            assertThat(events).anySatisfy(event -> {
+                assertThat(event.getEventType().getName()).isEqualTo("com.example.demo.UserLoad");
+                assertThat(event.getString("email")).isEqualTo("nobody@example.com");
+                assertThat(event.getBoolean("found")).isFalse();
+            });
+        }
+    }
+
+    @Test
+    void endpointDumpsAndProfiles() throws Exception {
+        // The continuous recording is disabled in tests
+        assertThat(flightRecorderEndpoint.control("dump", null).getStatus())
+                .isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+
+        WebEndpointResponse<Map<String, Object>> started = flightRecorderEndpoint.control("start", Duration.ofMinutes(1));
+        assertThat(started.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        assertThat(flightRecorderEndpoint.control("start", null).getStatus())
+                .isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+
+        WebEndpointResponse<Map<String, Object>> dump = flightRecorderEndpoint.control("dump", null);
+        assertThat(Files.size(Path.of((String) dump.getBody().get("file")))).isPositive();
+
+        WebEndpointResponse<Map<String, Object>> stopped = flightRecorderEndpoint.control("stop", null);
+        assertThat(stopped.getBody().get("file")).isEqualTo(started.getBody().get("file"));
+        assertThat(Path.of((String) stopped.getBody().get("file"))).exists();
+    }
+
+    @Test
+    void endpointRequiresAnAdmin() throws Exception {
+        mockMvc.perform(post("/actuator/flightrecorder/dump"))
+                .andExpect(status().is4xxClientError());
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.demo;
+
+import com.example.demo.dto.DepartmentRequest;
+import com.example.demo.dto.EmployeeRequest;
+import com.example.demo.security.LoginRateLimiter;
+import com.example.demo.service.DepartmentService;
+import com.example.demo.service.EmployeeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Failed login attempts are throttled per client address and per email before password verification, successful
+ * ones are not, and emails without a user are answered from the negative cache until a user is created with them.
+ * Without a trusted proxy, X-Forwarded-For does not change the address a client is throttled by.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.security.login.rate-limit.address.capacity=3",
+        "app.security.login.rate-limit.email.capacity=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoginRateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void addressIsThrottledAfterItsCapacity() throws Exception {
+        String address = "10.0.0.1";
+        for (int attempt = 0; attempt < 3; attempt++) {
+            login(address, uniqueEmail(), "wrong").andExpect(status().isBadRequest());
+        }
+
+        login(address, uniqueEmail(), "wrong")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "20"));
+        login("10.0.0.2", uniqueEmail(), "wrong").andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void emailIsThrottledAcrossAddresses() throws Exception {
+        String email = uniqueEmail();
+        login("10.0.1.1", email, "wrong").andExpect(status().isBadRequest());
+        login("10.0.1.2", email, "wrong").andExpect(status().isBadRequest());
+
+        login("10.0.1.3", email.toUpperCase(), "wrong")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void successfulLoginsDoNotUseUpTheBuckets() throws Exception {
+        String address = "10.0.3.1";
+        String email = uniqueEmail();
+        createEmployee(email, "secret1");
+        for (int attempt = 0; attempt < 10; attempt++) {
+            login(address, email, "secret1").andExpect(status().isOk());
+        }
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            login(address, uniqueEmail(), "wrong").andExpect(status().isBadRequest());
+        }
+        login(address, email, "secret1").andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void spoofedForwardedForDoesNotResetTheBucket() {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            assertThat(loginForwardedFor("203.0.113." + attempt).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+
+        assertThat(loginForwardedFor("198.51.100.99").getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void unknownEmailIsForgottenWhenAUserIsCreatedWithIt() throws Exception {
+        String email = uniqueEmail();
+        login("10.0.2.1", email, "secret1").andExpect(status().isBadRequest());
+        assertThat(loginRateLimiter.isKnownUnknown(email)).isTrue();
+
+        createEmployee(email, "secret1");
+
+        assertThat(loginRateLimiter.isKnownUnknown(email)).isFalse();
+        login("10.0.2.2", email, "secret1").andExpect(status().isOk());
+    }
+
+    private void createEmployee(String email, String password) {
+        DepartmentRequest department = new DepartmentRequest();
+        department.setName("Rate limit " + UUID.randomUUID());
+        department.setDescription("Created by " + LoginRateLimitTest.class.getSimpleName());
+        departmentService.createDepartment(department);
+
+        EmployeeRequest employee = new EmployeeRequest();
+        employee.setFirstName("Rate");
+        employee.setLastName("Limit");
+        employee.setPosition("Tester");
+        employee.setEmail(email);
+        employee.setDepartment(department.getName());
+        employee.setPassword(password);
+        employeeService.createEmployee(employee);
+    }
+
+    // A real HTTP request from the loopback address, which is not configured as a trusted proxy
+    private ResponseEntity<String> loginForwardedFor(String claimedAddress) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", claimedAddress);
+        String body = "{\"email\":\"" + uniqueEmail() + "\",\"password\":\"wrong\"}";
+        return restTemplate.postForEntity("/api/auth/login", new HttpEntity<>(body, headers), String.class);
+    }
+
+    private ResultActions login(String address, String email, String password) throws Exception {
+        return mockMvc.perform(post("/api/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"));
+    }
+
+    private static String uniqueEmail() {
+        return "rate-" + UUID.randomUUID() + "@example.com";
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * The index plan checks of {@link SchemaMigrationTest} against a real MySQL database, migrated with the mysql scripts.
+ * Runs only when a dedicated, empty database is given:
+ * {@code mvn test -Dtest=MySqlSchemaMigrationTest -Dtest.mysql.url=jdbc:mysql://localhost:3306/hr_schema_test
+ * -Dtest.mysql.username=root -Dtest.mysql.password=root}
+ */
+@EnabledIfSystemProperty(named = "test.mysql.url", matches = ".+")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=${test.mysql.url}",
+        "spring.datasource.username=${test.mysql.username:root}",
+        "spring.datasource.password=${test.mysql.password:}",
+        "spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect"
+})
+class MySqlSchemaMigrationTest extends SchemaMigrationTest {
+    
+    /**
+     * The "key" column of every row of the MySQL plan
+     */
+    @Override
+    protected String indexesUsed(String sql) {
+        return jdbcTemplate.queryForList("EXPLAIN " + sql).stream()
+                .map(row -> row.get("key"))
+                .filter(Objects::nonNull)
+                .map(key -> key.toString().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo;
+
+import com.example.demo.security.JwtUtil;
+import com.example.demo.service.DepartmentService;
+import com.example.demo.service.EmployeeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The Prometheus scrape endpoint takes the scrape credentials instead of a token and carries the endpoint,
+ * service, pool, Hibernate, JWT and cache meters; without them it is refused.
+ */
+@SpringBootTest(properties = "app.metrics.scrape.password=" + PrometheusMetricsTest.SCRAPE_PASSWORD)
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class PrometheusMetricsTest {
+
+    static final String SCRAPE_PASSWORD = "scrape-secret";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void scrapeExportsApplicationMeters() throws Exception {
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"nobody@example.com\",\"password\":\"wrong\"}"));
+        employeeService.getAllEmployees();
+        departmentService.getAllDepartments();
+        assertThatThrownBy(() -> jwtUtil.extractVerifiedClaims("not-a-token")).isInstanceOf(RuntimeException.class);
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus")
+                        .header(HttpHeaders.AUTHORIZATION, basic("prometheus", SCRAPE_PASSWORD)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("uri=\"/api/auth/login\"")
+                .contains("hr_service_seconds_count{")
+                .contains("class=\"com.example.demo.service.EmployeeService\"")
+                .contains("method=\"getAllDepartments\"")
+                .contains("hikaricp_connections_pending")
+                .contains("hibernate_statements_total")
+                .contains("jwt_verification_seconds_bucket{")
+                .contains("result=\"rejected\"")
+                .contains("cache=\"jwt.claims\"")
+                .contains("cache=\"response.body\"");
+    }
+
+    @Test
+    void scrapeWithoutCredentialsIsRefused() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus")
+                        .header(HttpHeaders.AUTHORIZATION, basic("prometheus", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void applicationUsersCannotScrape() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")
+                        .header(HttpHeaders.AUTHORIZATION, basic("admin@example.com", "admin123")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
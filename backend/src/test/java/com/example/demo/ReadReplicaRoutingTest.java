@@ -0,0 +1,161 @@
+package com.example.demo;
+
+import com.example.demo.config.ReplicaLagMonitor;
+import com.example.demo.dto.DepartmentRequest;
+import com.example.demo.dto.DepartmentResponse;
+import com.example.demo.entity.Department;
+import com.example.demo.repository.DepartmentRepository;
+import com.example.demo.service.DepartmentService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing between the primary and a read replica, with a second in-memory H2 database standing in for the replica.
+ * Nothing replicates between the two, so a row that exists in only one of them shows which one served a read.
+ * Replica lag is simulated through the lag query.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.jdbc-url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=password",
+        "app.datasource.replica-max-lag=0s",
+        "app.datasource.replica-lag-check-interval=100ms",
+        "app.datasource.replica-lag-query=SELECT lag_seconds FROM replica_status"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate replicaJdbc =
+            new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "password"));
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    static void createReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "password")
+                .locations("classpath:db/migration/h2")
+                .load()
+                .migrate();
+        replicaJdbc.execute("CREATE TABLE replica_status (lag_seconds int)");
+        replicaJdbc.update("INSERT INTO replica_status VALUES (0)");
+        replicaJdbc.update("INSERT INTO departments (id, name, description, is_active) " +
+                "VALUES (NEXT VALUE FOR departments_seq, 'Replica Only', 'on the replica', TRUE)");
+    }
+
+    @BeforeEach
+    void replicaCaughtUp() throws InterruptedException {
+        // Cached entities and query results would answer reads without asking either database
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        replicaJdbc.update("UPDATE replica_status SET lag_seconds = 0");
+        replicaLagMonitor.check();
+        // Wait out the window after writes of earlier tests, in which reads stay on the primary
+        for (int i = 0; i < 50 && !replicaLagMonitor.isReplicaUsable(); i++) {
+            Thread.sleep(20);
+        }
+        assertThat(replicaLagMonitor.isReplicaUsable()).isTrue();
+    }
+
+    @Test
+    void readOnlyMethodsReadTheReplica() {
+        assertThat(departmentNames()).contains("Replica Only");
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        departmentService.createDepartment(request("Written To Primary"));
+
+        assertThat(countByName(new JdbcTemplate(primaryDataSource), "Written To Primary")).isEqualTo(1);
+        assertThat(countByName(replicaJdbc, "Written To Primary")).isZero();
+    }
+
+    @Test
+    void readsStayOnThePrimaryRightAfterAWrite() {
+        departmentService.createDepartment(request("Just Written"));
+
+        assertThat(departmentNames()).contains("Just Written").doesNotContain("Replica Only");
+    }
+
+    @Test
+    void laggingReplicaIsSkipped() {
+        replicaJdbc.update("UPDATE replica_status SET lag_seconds = 30");
+        replicaLagMonitor.check();
+
+        assertThat(replicaLagMonitor.isReplicaUsable()).isFalse();
+        assertThat(departmentNames()).doesNotContain("Replica Only");
+    }
+
+    @Test
+    void readOnlyTransactionsDoNotFlushChanges() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            assertThat(session.getHibernateFlushMode()).isEqualTo(FlushMode.MANUAL);
+            assertThat(session.isDefaultReadOnly()).isTrue();
+
+            Department department = departmentRepository.findByNameIgnoreCase("replica only").orElseThrow();
+            department.setDescription("changed in a read-only transaction");
+        });
+
+        assertThat(replicaJdbc.queryForObject("SELECT description FROM departments WHERE name = 'Replica Only'",
+                String.class)).isEqualTo("on the replica");
+    }
+
+    private List<String> departmentNames() {
+        return departmentService.getAllDepartments().stream().map(DepartmentResponse::getName).toList();
+    }
+
+    private static int countByName(JdbcTemplate jdbcTemplate, String name) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM departments WHERE name = ?", Integer.class, name);
+    }
+
+    private static DepartmentRequest request(String name) {
+        DepartmentRequest request = new DepartmentRequest();
+        request.setName(name);
+        request.setDescription("Created by " + ReadReplicaRoutingTest.class.getSimpleName());
+        return request;
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.demo;
+
+import com.example.demo.dto.DepartmentRequest;
+import com.example.demo.dto.EmployeeRequest;
+import com.example.demo.dto.EmployeeResponse;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.JwtUtil;
+import com.example.demo.service.DepartmentService;
+import com.example.demo.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * List endpoints answer 304 while the client's tag is current, change their tag only once a write commits,
+ * serve the gzip and identity bodies as separate representations with their own tags, and store no timestamps.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ResponseCachingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String department;
+    private EmployeeRequest request;
+    private EmployeeResponse employee;
+    private String token;
+
+    @BeforeEach
+    void createEmployees() {
+        DepartmentRequest departmentRequest = new DepartmentRequest();
+        departmentRequest.setName("Caching " + UUID.randomUUID());
+        departmentRequest.setDescription("Created by " + ResponseCachingTest.class.getSimpleName());
+        departmentService.createDepartment(departmentRequest);
+        department = departmentRequest.getName();
+
+        // Enough rows for the list body to be stored compressed
+        request = employeeRequest();
+        employee = employeeService.createEmployee(request);
+        EmployeeRequest last = request;
+        for (int i = 0; i < 9; i++) {
+            last = employeeRequest();
+            employeeService.createEmployee(last);
+        }
+        // Department lists are for managers
+        User manager = userRepository.findByEmail(last.getEmail()).orElseThrow();
+        manager.setRole(User.Role.MANAGER);
+        token = "Bearer " + jwtUtil.generateToken(userRepository.save(manager));
+    }
+
+    @Test
+    void currentTagIsAnsweredWithNotModified() throws Exception {
+        String etag = etagOf(list("identity"));
+
+        mockMvc.perform(list("identity").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)));
+    }
+
+    @Test
+    void tagChangesWhenAWriteCommits() throws Exception {
+        String employeesTag = etagOf(list("identity"));
+        String departmentsTag = etagOf(departments());
+
+        request.setPosition("Promoted");
+        employeeService.updateEmployee(employee.getId(), request);
+
+        MvcResult changed = mockMvc.perform(list("identity").header(HttpHeaders.IF_NONE_MATCH, employeesTag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(changed.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(employeesTag);
+        assertThat(changed.getResponse().getContentAsString()).contains("Promoted");
+        // Department bodies carry employee details too
+        mockMvc.perform(departments().header(HttpHeaders.IF_NONE_MATCH, departmentsTag)).andExpect(status().isOk());
+    }
+
+    @Test
+    void tagIsKeptWhenAWriteRollsBack() throws Exception {
+        String etag = etagOf(list("identity"));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            request.setPosition("Never committed");
+            employeeService.updateEmployee(employee.getId(), request);
+            status.setRollbackOnly();
+        });
+
+        mockMvc.perform(list("identity").header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+    }
+
+    @Test
+    void storedDepartmentBodiesCarryNoStaleTimestamp() throws Exception {
+        byte[] first = mockMvc.perform(departments()).andExpect(status().isOk()).andReturn()
+                .getResponse().getContentAsByteArray();
+        Thread.sleep(50);
+
+        byte[] second = mockMvc.perform(departments()).andExpect(status().isOk()).andReturn()
+                .getResponse().getContentAsByteArray();
+
+        // The second body is the stored one, so a timestamp in it would be the first request's
+        assertThat(second).isEqualTo(first);
+        assertThat(new String(second, StandardCharsets.UTF_8)).doesNotContain("timestamp");
+    }
+
+    @Test
+    void gzipAndIdentityAreSeparateRepresentations() throws Exception {
+        MvcResult identity = mockMvc.perform(list("identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn();
+        MvcResult gzip = mockMvc.perform(list("br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn();
+
+        String identityTag = identity.getResponse().getHeader(HttpHeaders.ETAG);
+        String gzipTag = gzip.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(gzipTag).isEqualTo(identityTag.substring(0, identityTag.length() - 1) + "-gz\"");
+        assertThat(gunzip(gzip.getResponse().getContentAsByteArray()))
+                .isEqualTo(identity.getResponse().getContentAsByteArray());
+
+        // A stored copy of one coding does not validate the other
+        mockMvc.perform(list("gzip").header(HttpHeaders.IF_NONE_MATCH, identityTag)).andExpect(status().isOk());
+        mockMvc.perform(list("identity").header(HttpHeaders.IF_NONE_MATCH, gzipTag)).andExpect(status().isOk());
+        mockMvc.perform(list("gzip").header(HttpHeaders.IF_NONE_MATCH, gzipTag)).andExpect(status().isNotModified());
+    }
+
+    @Test
+    void zeroQualityGzipGetsTheIdentityBody() throws Exception {
+        String identityTag = etagOf(list("identity"));
+
+        mockMvc.perform(list("gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, identityTag));
+    }
+
+    private MockHttpServletRequestBuilder list(String acceptEncoding) {
+        return get("/api/employees")
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+    }
+
+    private String etagOf(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private MockHttpServletRequestBuilder departments() {
+        return get("/api/departments").header(HttpHeaders.AUTHORIZATION, token);
+    }
+
+    private EmployeeRequest employeeRequest() {
+        EmployeeRequest employeeRequest = new EmployeeRequest();
+        employeeRequest.setFirstName("Cache");
+        employeeRequest.setLastName("Variant");
+        employeeRequest.setPosition("Tester");
+        employeeRequest.setEmail("caching-" + UUID.randomUUID() + "@example.com");
+        employeeRequest.setDepartment(department);
+        employeeRequest.setPassword("secret1");
+        return employeeRequest;
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.demo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Applies the Flyway migrations to an embedded H2 database and checks that the queries behind the employee
+ * and department endpoints are planned on the intended indexes. The SQL mirrors what Hibernate generates for
+ * the repository methods named in each test. {@link MySqlSchemaMigrationTest} runs the same checks on MySQL.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class SchemaMigrationTest {
+    
+    private static final int DEPARTMENTS = 20;
+    private static final int EMPLOYEES = 2000;
+    
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> departments = new ArrayList<>();
+        for (int d = 0; d < DEPARTMENTS; d++) {
+            departments.add(new Object[]{"Department " + d, d % 10 != 0, Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO departments (name, is_active, created_at) VALUES (?, ?, ?)", departments);
+        Long firstDepartmentId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM departments", Long.class);
+        
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            users.add(new Object[]{"schema" + i + "@company.com", "hash", "Last" + (i % 500), i % 100 == 0 ? "MANAGER" : "EMPLOYEE",
+                    i % 20 != 0, firstDepartmentId + i % DEPARTMENTS, "Department " + i % DEPARTMENTS,
+                    Timestamp.valueOf(now.minusDays(i)), Timestamp.valueOf(now.minusMinutes(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (email, password, last_name, role, is_active, department_id, " +
+                "department, hire_date, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", users);
+    }
+    
+    @Test
+    void migrationsCreateGeneratedNameKey() {
+        String nameKey = jdbcTemplate.queryForObject(
+                "SELECT name_key FROM departments WHERE name = ?", String.class, "Department 3");
+        assertThat(nameKey).isEqualTo("DEPARTMENT 3");
+    }
+    
+    @Test
+    void employeeListUsesRoleIndex() {
+        // findListRowsByRole
+        assertUsesIndex("SELECT id, first_name, last_name, email, department FROM users " +
+                "WHERE role = 'EMPLOYEE' ORDER BY id LIMIT 20", "idx_users_role_id");
+    }
+    
+    @Test
+    void keysetPageByLastNameUsesSortIndex() {
+        // findListRowsByRoleAfter with sortBy=name
+        assertUsesIndex("SELECT id, last_name FROM users WHERE role = 'EMPLOYEE' " +
+                "AND (last_name > 'Last3' OR (last_name = 'Last3' AND id > 10)) ORDER BY last_name, id LIMIT 21",
+                "idx_users_role_last_name");
+    }
+    
+    @Test
+    void keysetPageByHireDateUsesSortIndex() {
+        // findListRowsByRoleAfter with sortBy=hireDate
+        assertUsesIndex("SELECT id, hire_date FROM users WHERE role = 'EMPLOYEE' " +
+                "AND hire_date > TIMESTAMP '2020-01-01 00:00:00' ORDER BY hire_date, id LIMIT 21",
+                "idx_users_role_hire_date");
+    }
+    
+    @Test
+    void statusFilterUsesStatusIndex() {
+        // findListRowsByRoleAndIsActive
+        assertUsesIndex("SELECT id, last_name FROM users WHERE role = 'EMPLOYEE' AND is_active = FALSE ORDER BY id",
+                "idx_users_role_is_active");
+    }
+    
+    @Test
+    void departmentCountsUseDepartmentIndex() {
+        // findDepartmentEmployeeCounts and countByRoleAndDepartmentId
+        assertUsesIndex("SELECT department_id, COUNT(id) FROM users WHERE role = 'EMPLOYEE' " +
+                "AND department_id IN (1, 2, 3) GROUP BY department_id",
+                "idx_users_department_id_role");
+    }
+    
+    @Test
+    void departmentIdMustReferenceADepartment() {
+        // fk_users_department comes from the migrations; the entity maps department_id as a plain column
+        Long missingDepartmentId = jdbcTemplate.queryForObject("SELECT MAX(id) + 1 FROM departments", Long.class);
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO users (email, password, role, department_id) " +
+                "VALUES ('orphan@company.com', 'hash', 'EMPLOYEE', ?)", missingDepartmentId))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+    
+    @Test
+    void caseInsensitiveDepartmentLookupUsesNameKeyIndex() {
+        // findByNameIgnoreCase and existsByNameIgnoreCase
+        assertUsesIndex("SELECT id, name FROM departments WHERE name_key = UPPER('department 3')",
+                "idx_departments_name_key");
+    }
+    
+    @Test
+    void departmentsByManagerUseManagerIndex() {
+        // findByManagerId
+        assertUsesIndex("SELECT id, name FROM departments WHERE manager_id = 42", "idx_departments_manager_id");
+    }
+    
+    @Test
+    void activeDepartmentsUseActiveIndex() {
+        // findByIsActiveTrue
+        assertUsesIndex("SELECT id, name FROM departments WHERE is_active = TRUE", "idx_departments_is_active");
+    }
+    
+    protected void assertUsesIndex(String sql, String index) {
+        assertThat(indexesUsed(sql)).as("plan of %s", sql).contains(index);
+    }
+    
+    /**
+     * Index names in the query plan, lower case. H2 names the chosen index in its plan text.
+     */
+    protected String indexesUsed(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo;
+
+import com.example.demo.jdbc.SqlStatementBudgetExceededException;
+import com.example.demo.jdbc.SqlStatementMonitor;
+import com.example.demo.jdbc.StatementMonitoringDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Statement counting, budget enforcement and slow-statement logging of the SQL monitor.
+ * Every statement counts as slow here, so each one is logged with its bind values.
+ */
+@SpringBootTest(properties = {
+        "app.sql.statement-budget=3",
+        "app.sql.budget-action=FAIL",
+        "app.sql.slow-threshold=0ms"
+})
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class SqlStatementMonitorTest {
+
+    private static final String COUNT_BY_NAME = "SELECT COUNT(*) FROM departments WHERE name = ?";
+
+    @Autowired
+    private SqlStatementMonitor sqlStatementMonitor;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void endRequest() {
+        sqlStatementMonitor.endRequest();
+    }
+
+    @Test
+    void applicationDataSourceIsMonitored() {
+        assertThat(dataSource).isInstanceOf(StatementMonitoringDataSource.class);
+    }
+
+    @Test
+    void statementOverTheBudgetFailsTheRequest() {
+        sqlStatementMonitor.beginRequest("GET /api/budget");
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.queryForObject(COUNT_BY_NAME, Integer.class, "Department " + i);
+        }
+
+        assertThatThrownBy(() -> jdbcTemplate.queryForObject(COUNT_BY_NAME, Integer.class, "One Too Many"))
+                .isInstanceOf(SqlStatementBudgetExceededException.class)
+                .hasMessageContaining("GET /api/budget")
+                .hasMessageContaining("(4x): " + COUNT_BY_NAME);
+    }
+
+    @Test
+    void statementsOutsideARequestAreNotBudgeted() {
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.queryForObject(COUNT_BY_NAME, Integer.class, "Department " + i);
+        }
+    }
+
+    @Test
+    void slowStatementsAreLoggedWithBindValues(CapturedOutput output) {
+        sqlStatementMonitor.beginRequest("GET /api/slow");
+        jdbcTemplate.queryForObject(COUNT_BY_NAME, Integer.class, "Engineering");
+
+        assertThat(output).contains("Slow SQL statement")
+                .contains("GET /api/slow")
+                .contains(COUNT_BY_NAME + " [1='Engineering']");
+    }
+}
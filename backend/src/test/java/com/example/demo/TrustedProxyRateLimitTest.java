@@ -0,0 +1,63 @@
+package com.example.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * With the proxy listed in server.tomcat.remoteip.internal-proxies, login attempts are throttled by the client
+ * address it forwards, and addresses a client prepends to X-Forwarded-For itself are ignored.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.forward-headers-strategy=native",
+        // The test client plays the proxy
+        "server.tomcat.remoteip.internal-proxies=127\\.0\\.0\\.1|0:0:0:0:0:0:0:1",
+        "app.security.login.rate-limit.address.capacity=3"
+})
+@ActiveProfiles("test")
+class TrustedProxyRateLimitTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void forwardedClientAddressesHaveTheirOwnBuckets() {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            assertThat(loginThroughProxy("203.0.113.7").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+
+        assertThat(loginThroughProxy("203.0.113.7").getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(loginThroughProxy("203.0.113.8").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void addressesTheClientPrependsDoNotChangeItsBucket() {
+        // The proxy appends the address it saw; anything before it came from the client
+        for (int attempt = 0; attempt < 3; attempt++) {
+            assertThat(loginThroughProxy("10.1.1." + attempt + ", 203.0.113.20").getStatusCode())
+                    .isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+
+        assertThat(loginThroughProxy("10.1.1.99, 203.0.113.20").getStatusCode())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    private ResponseEntity<String> loginThroughProxy(String forwardedFor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", forwardedFor);
+        String body = "{\"email\":\"proxy-" + UUID.randomUUID() + "@example.com\",\"password\":\"wrong\"}";
+        return restTemplate.postForEntity("/api/auth/login", new HttpEntity<>(body, headers), String.class);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo;
+
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.UserProfileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Profile text reads back unchanged whether it was stored plain or compressed, and is only compressed when it
+ * reaches the threshold and gzip makes it smaller.
+ */
+@SpringBootTest(properties = "app.profile.compress-threshold=64B")
+@ActiveProfiles("test")
+class UserProfileServiceTest {
+
+    @Autowired
+    private UserProfileService userProfileService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void createUser() {
+        User user = new User();
+        user.setEmail("profile-" + UUID.randomUUID() + "@example.com");
+        user.setPassword("hash");
+        user.setFirstName("Pro");
+        user.setLastName("File");
+        user.setRole(User.Role.EMPLOYEE);
+        userId = userRepository.save(user).getId();
+    }
+
+    @Test
+    void shortTextIsStoredPlain() {
+        userProfileService.saveProfile(userId, "Short bio");
+
+        assertThat(userProfileService.getProfile(userId)).isEqualTo("Short bio");
+        assertThat(isCompressed()).isFalse();
+        assertThat(storedLength()).isEqualTo("Short bio".length());
+    }
+
+    @Test
+    void longCompressibleTextRoundTripsThroughGzip() {
+        String text = "Leads the payroll team; ümlauts, emoji 🚀 and CJK 給与 included. ".repeat(40);
+
+        userProfileService.saveProfile(userId, text);
+
+        assertThat(userProfileService.getProfile(userId)).isEqualTo(text);
+        assertThat(isCompressed()).isTrue();
+        assertThat(storedLength()).isLessThan(text.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    void textThatGzipCannotShrinkIsStoredPlain() {
+        // Random printable characters: gzip's header and Huffman tables outweigh what it saves
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 80; i++) {
+            text.append((char) ('!' + random.nextInt(94)));
+        }
+
+        userProfileService.saveProfile(userId, text.toString());
+
+        assertThat(userProfileService.getProfile(userId)).isEqualTo(text.toString());
+        assertThat(isCompressed()).isFalse();
+    }
+
+    @Test
+    void rewritingSwitchesEncodingAndBlankTextDeletes() {
+        String longText = "Quarterly planning notes. ".repeat(20);
+        userProfileService.saveProfile(userId, longText);
+        assertThat(isCompressed()).isTrue();
+
+        userProfileService.saveProfile(userId, "Now short");
+        assertThat(userProfileService.getProfile(userId)).isEqualTo("Now short");
+        assertThat(isCompressed()).isFalse();
+
+        userProfileService.saveProfile(userId, "   ");
+        assertThat(userProfileService.getProfile(userId)).isNull();
+    }
+
+    @Test
+    void batchInsertEncodesLikeSingleWrites() {
+        String longText = "Imported profile text. ".repeat(20);
+
+        userProfileService.insertProfiles(Map.of(userId, longText));
+
+        assertThat(userProfileService.getProfile(userId)).isEqualTo(longText);
+        assertThat(isCompressed()).isTrue();
+    }
+
+    private boolean isCompressed() {
+        return jdbcTemplate.queryForObject("SELECT compressed FROM user_profiles WHERE user_id = ?",
+                Boolean.class, userId);
+    }
+
+    private int storedLength() {
+        return jdbcTemplate.queryForObject("SELECT content FROM user_profiles WHERE user_id = ?",
+                byte[].class, userId).length;
+    }
+}
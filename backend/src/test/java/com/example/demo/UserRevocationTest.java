@@ -0,0 +1,137 @@
+package com.example.demo;
+
+import com.example.demo.dto.DepartmentRequest;
+import com.example.demo.dto.EmployeeRequest;
+import com.example.demo.dto.EmployeeResponse;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.JwtUtil;
+import com.example.demo.security.UserDetailsCache;
+import com.example.demo.service.DepartmentService;
+import com.example.demo.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Deactivating an employee or changing their email takes effect on the next request made with a token issued
+ * before the change, and a user load that overlaps an invalidation is not kept in the user-details cache.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserRevocationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String department;
+
+    @BeforeEach
+    void createDepartment() {
+        DepartmentRequest request = new DepartmentRequest();
+        request.setName("Revocation " + UUID.randomUUID());
+        request.setDescription("Created by " + UserRevocationTest.class.getSimpleName());
+        departmentService.createDepartment(request);
+        department = request.getName();
+    }
+
+    @Test
+    void deactivationAppliesToTheNextRequest() throws Exception {
+        EmployeeRequest request = employeeRequest();
+        EmployeeResponse employee = employeeService.createEmployee(request);
+        String token = tokenFor(request.getEmail());
+        callProtected(token, employee.getId()).andExpect(status().isOk());
+
+        request.setIsActive(false);
+        employeeService.updateEmployee(employee.getId(), request);
+
+        callProtected(token, employee.getId()).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void emailChangeRevokesTokensForTheOldEmail() throws Exception {
+        EmployeeRequest request = employeeRequest();
+        EmployeeResponse employee = employeeService.createEmployee(request);
+        String token = tokenFor(request.getEmail());
+        callProtected(token, employee.getId()).andExpect(status().isOk());
+
+        request.setEmail("renamed-" + request.getEmail());
+        employeeService.updateEmployee(employee.getId(), request);
+
+        callProtected(token, employee.getId()).andExpect(status().isForbidden());
+        callProtected(tokenFor(request.getEmail()), employee.getId()).andExpect(status().isOk());
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotCached() {
+        String email = "overlap-" + UUID.randomUUID() + "@example.com";
+        User stale = new User();
+        stale.setEmail(email);
+        User fresh = new User();
+        fresh.setEmail(email);
+
+        UserDetails loaded = userDetailsCache.get(email, key -> {
+            // The row changes and commits while this load is in flight
+            userDetailsCache.invalidate(key);
+            return stale;
+        });
+        assertThat(loaded).isSameAs(stale);
+
+        AtomicInteger loads = new AtomicInteger();
+        UserDetails reloaded = userDetailsCache.get(email, key -> {
+            loads.incrementAndGet();
+            return fresh;
+        });
+        assertThat(reloaded).isSameAs(fresh);
+        assertThat(loads).hasValue(1);
+        assertThat(userDetailsCache.get(email, key -> stale)).isSameAs(fresh);
+    }
+
+    private EmployeeRequest employeeRequest() {
+        EmployeeRequest request = new EmployeeRequest();
+        request.setFirstName("Revo");
+        request.setLastName("Cation");
+        request.setPosition("Tester");
+        request.setEmail("revocation-" + UUID.randomUUID() + "@example.com");
+        request.setDepartment(department);
+        request.setPassword("secret1");
+        return request;
+    }
+
+    private String tokenFor(String email) {
+        return jwtUtil.generateToken(userRepository.findByEmail(email).orElseThrow());
+    }
+
+    private ResultActions callProtected(String token, Long employeeId) throws Exception {
+        return mockMvc.perform(get("/api/employees/{id}", employeeId).header("Authorization", "Bearer " + token));
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.demo.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop HTTP load generator for benchmarks.
+ * <p>
+ * Each of {@code concurrency} virtual-thread clients repeatedly picks an endpoint from the weighted mix,
+ * sends it and waits for the response, so the offered load adapts to the server instead of overrunning
+ * the client. Requests sent during the warmup are not recorded. Latencies are kept per endpoint.
+ */
+public class HttpLoadDriver {
+    
+    private final URI baseUri;
+    private final String bearerToken;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final HttpClient client;
+    
+    public HttpLoadDriver(URI baseUri, String bearerToken, int concurrency, Duration warmup, Duration duration) {
+        this.baseUri = baseUri;
+        this.bearerToken = bearerToken;
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+    
+    /**
+     * Add a GET endpoint to the mix; weight is relative to the other endpoints
+     */
+    public HttpLoadDriver get(String name, int weight, String path) {
+        return get(name, weight, () -> path);
+    }
+    
+    /**
+     * Add a GET endpoint whose path is generated per request, e.g. with a random id or search term
+     */
+    public HttpLoadDriver get(String name, int weight, Supplier<String> path) {
+        endpoints.add(new Endpoint(name, weight, path));
+        return this;
+    }
+    
+    public Report run() throws Exception {
+        if (endpoints.isEmpty()) {
+            throw new IllegalStateException("No endpoints configured");
+        }
+        int totalWeight = endpoints.stream().mapToInt(Endpoint::weight).sum();
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        
+        List<Future<Map<String, Recorder>>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.add(executor.submit(() -> runClient(totalWeight, warmupEnd, end)));
+            }
+            
+            Map<String, Recorder> merged = new LinkedHashMap<>();
+            for (Endpoint endpoint : endpoints) {
+                merged.put(endpoint.name(), new Recorder());
+            }
+            for (Future<Map<String, Recorder>> result : clients) {
+                result.get().forEach((name, recorder) -> merged.get(name).merge(recorder));
+            }
+            
+            Map<String, EndpointStats> stats = new LinkedHashMap<>();
+            Recorder all = new Recorder();
+            merged.forEach((name, recorder) -> {
+                stats.put(name, recorder.toStats(duration));
+                all.merge(recorder);
+            });
+            return new Report(concurrency, duration, stats, all.toStats(duration));
+        }
+    }
+    
+    private Map<String, Recorder> runClient(int totalWeight, long warmupEnd, long end) {
+        Map<String, Recorder> recorders = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints) {
+            recorders.put(endpoint.name(), new Recorder());
+        }
+        
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            Endpoint endpoint = pick(totalWeight);
+            boolean ok;
+            try {
+                HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(endpoint.path().get()))
+                        .timeout(Duration.ofSeconds(30))
+                        .GET();
+                if (bearerToken != null) {
+                    request.header("Authorization", "Bearer " + bearerToken);
+                }
+                HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() < 400;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                ok = false;
+            }
+            long finished = System.nanoTime();
+            if (now >= warmupEnd && finished < end) {
+                recorders.get(endpoint.name()).record(finished - now, ok);
+            }
+        }
+        return recorders;
+    }
+    
+    private Endpoint pick(int totalWeight) {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints) {
+            ticket -= endpoint.weight();
+            if (ticket < 0) {
+                return endpoint;
+            }
+        }
+        return endpoints.get(endpoints.size() - 1);
+    }
+    
+    private record Endpoint(String name, int weight, Supplier<String> path) {
+    }
+    
+    /**
+     * Single-threaded latency recorder; one per client and endpoint, merged at the end
+     */
+    private static class Recorder {
+        
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        
+        void record(long nanos, boolean ok) {
+            if (!ok) {
+                errors++;
+                return;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+        
+        void merge(Recorder other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+        
+        EndpointStats toStats(Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            double seconds = duration.toNanos() / 1e9;
+            return new EndpointStats(count, errors, count / seconds,
+                    percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.90),
+                    percentileMillis(sorted, 0.99), count == 0 ? 0.0 : sorted[count - 1] / 1e6);
+        }
+        
+        private static double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+    }
+    
+    public record EndpointStats(long requests, long errors, double throughput,
+                                double p50Millis, double p90Millis, double p99Millis, double maxMillis) {
+        
+        String format(String name) {
+            return String.format(Locale.ROOT, "%-28s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f",
+                    name, requests, errors, throughput, p50Millis, p90Millis, p99Millis, maxMillis);
+        }
+    }
+    
+    public record Report(int concurrency, Duration duration, Map<String, EndpointStats> endpoints, EndpointStats total) {
+        
+        public String format(String title) {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format(Locale.ROOT, "%n== %s (%d clients, %ds) ==%n", title, concurrency, duration.toSeconds()));
+            out.append(String.format(Locale.ROOT, "%-28s %9s %7s %10s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+            endpoints.forEach((name, stats) -> out.append(stats.format(name)).append(System.lineSeparator()));
+            out.append(total.format("TOTAL")).append(System.lineSeparator());
+            return out.toString();
+        }
+    }
+}
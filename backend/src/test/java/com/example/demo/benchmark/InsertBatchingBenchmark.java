@@ -0,0 +1,176 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert rate of users persisted through JPA one statement per row versus in JDBC batches
+ * (hibernate.jdbc.batch_size).
+ * <p>
+ * Row by row is what Hibernate did while ids were IDENTITY columns: it has to execute each insert to learn the id,
+ * so batching was disabled. With ids allocated in blocks from a sequence (pooled-lo), the inserts of a flush are
+ * sent as batches. Each mode starts the application against its own in-memory H2 database and persists
+ * {@code benchmark.users} users in transactions of {@code benchmark.chunk-size}. Every database round trip
+ * (statement or batch execution) is delayed by {@code benchmark.db-latency-ms} to model the network hop to MySQL,
+ * and round trips are counted.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=InsertBatchingBenchmark}.
+ */
+@Tag("benchmark")
+class InsertBatchingBenchmark {
+    
+    private static final int USERS = Integer.getInteger("benchmark.users", 100_000);
+    private static final int CHUNK_SIZE = Integer.getInteger("benchmark.chunk-size", 1000);
+    private static final int DB_LATENCY_MS = Integer.getInteger("benchmark.db-latency-ms", 1);
+    private static final int BATCH_SIZE = 50;
+    
+    // Round trips are only counted and delayed while users are inserted, not during startup
+    private static volatile boolean measuring;
+    private static final AtomicLong roundTrips = new AtomicLong();
+    
+    @Test
+    void compareInsertRates() {
+        Result rowByRow = runMode(1);
+        Result batched = runMode(BATCH_SIZE);
+        
+        System.out.println(rowByRow.format("row by row"));
+        System.out.println(batched.format("batches of " + BATCH_SIZE));
+        System.out.printf("%ninsert rate batched/row by row: %.2fx, round trips row by row/batched: %.1fx%n",
+                batched.rowsPerSecond() / rowByRow.rowsPerSecond(),
+                (double) rowByRow.roundTrips() / batched.roundTrips());
+        
+        assertThat(batched.roundTrips()).isLessThan(rowByRow.roundTrips());
+    }
+    
+    private Result runMode(int batchSize) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .profiles("test")
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(new RoundTripPostProcessor()))
+                // Command line arguments so they override application-test.properties
+                .run(
+                        "--spring.main.web-application-type=none",
+                        "--spring.datasource.url=jdbc:h2:mem:insert-benchmark-" + batchSize + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN")) {
+            
+            EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+            String password = context.getBean(PasswordEncoder.class).encode("benchmark123");
+            
+            roundTrips.set(0);
+            measuring = true;
+            long started = System.nanoTime();
+            try {
+                for (int from = 0; from < USERS; from += CHUNK_SIZE) {
+                    insertChunk(entityManagerFactory, from, Math.min(from + CHUNK_SIZE, USERS), password);
+                }
+            } finally {
+                measuring = false;
+            }
+            long elapsedNanos = System.nanoTime() - started;
+            
+            Integer inserted = context.getBean(JdbcTemplate.class).queryForObject(
+                    "SELECT COUNT(*) FROM users WHERE email LIKE 'insert%@benchmark.test'", Integer.class);
+            assertThat(inserted).isEqualTo(USERS);
+            return new Result(USERS, elapsedNanos, roundTrips.get());
+        }
+    }
+    
+    private void insertChunk(EntityManagerFactory entityManagerFactory, int from, int to, String password) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            for (int i = from; i < to; i++) {
+                User user = new User();
+                user.setEmail("insert" + i + "@benchmark.test");
+                user.setPassword(password);
+                user.setFirstName("First" + i);
+                user.setLastName("Last" + i);
+                user.setRole(User.Role.EMPLOYEE);
+                user.setPosition("Engineer");
+                user.setHireDate(LocalDateTime.now().minusDays(i % 3650));
+                entityManager.persist(user);
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+    
+    private record Result(int rows, long elapsedNanos, long roundTrips) {
+        
+        double rowsPerSecond() {
+            return rows * 1e9 / elapsedNanos;
+        }
+        
+        String format(String mode) {
+            return String.format("%n== %s ==%n%d users in %d ms: %.0f rows/s, %d round trips",
+                    mode, rows, elapsedNanos / 1_000_000, rowsPerSecond(), roundTrips);
+        }
+    }
+    
+    /**
+     * Wraps the DataSource so every statement execution is counted and sleeps for the configured latency
+     */
+    private static class RoundTripPostProcessor implements BeanPostProcessor {
+        
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource) {
+                return proxy(DataSource.class, dataSource);
+            }
+            return bean;
+        }
+        
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                if (method.getName().startsWith("execute") && target instanceof Statement && measuring) {
+                    roundTrips.incrementAndGet();
+                    if (DB_LATENCY_MS > 0) {
+                        Thread.sleep(DB_LATENCY_MS);
+                    }
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof Connection connection && !(target instanceof Connection)) {
+                    return proxy(Connection.class, connection);
+                }
+                if (result instanceof PreparedStatement statement) {
+                    return proxy(PreparedStatement.class, statement);
+                }
+                if (result instanceof Statement statement && !(target instanceof Statement)) {
+                    return proxy(Statement.class, statement);
+                }
+                return result;
+            };
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.demo.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk loads synthetic employees and departments with JDBC batches, bypassing JPA and events.
+ * <p>
+ * Employee {@code i} (0-based) has email {@code loadtest<i>@company.com}, works in department {@code i % departments}
+ * and the first employee of each department manages it. Names repeat from small pools so that
+ * search terms match realistic fractions of the data.
+ * <p>
+ * Ids are reserved from the H2 sequences the entities allocate from (db/migration V3), in the same blocks
+ * the pooled-lo optimizer uses, so rows created later through JPA never collide with seeded ones.
+ */
+class LoadTestDataSeeder {
+    
+    static final String[] FIRST_NAMES = {
+            "Anna", "John", "Sarah", "Michael", "Emily", "David", "Lisa", "James", "Maria", "Robert",
+            "Linda", "William", "Elena", "Thomas", "Sofia", "Daniel", "Laura", "Peter", "Nina", "Mark"};
+    static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Wilson", "Anderson",
+            "Taylor", "Thomas", "Moore", "Martin", "Jackson", "Thompson", "White", "Lopez", "Clark", "Lewis",
+            "Walker", "Hall", "Young", "King", "Wright", "Scott", "Green", "Baker", "Adams", "Nelson"};
+    static final String[] POSITIONS = {
+            "Software Engineer", "Product Manager", "UX Designer", "DevOps Engineer", "HR Manager",
+            "Marketing Specialist", "Financial Analyst", "Sales Representative", "Data Scientist", "QA Engineer"};
+    
+    private static final int BATCH_SIZE = 5000;
+    // allocationSize of the entity sequence generators
+    private static final int ID_BLOCK_SIZE = 50;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final String passwordHash;
+    
+    LoadTestDataSeeder(JdbcTemplate jdbcTemplate, String passwordHash) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordHash = passwordHash;
+    }
+    
+    static String departmentName(int index) {
+        return "Department " + index;
+    }
+    
+    /**
+     * @return id of the first seeded employee; employee i has id firstId + i
+     */
+    long seed(int employees, int departments) {
+        LocalDateTime now = LocalDateTime.now();
+        seedDepartments(departments, now);
+        long firstId = reserveIds("users_seq", employees);
+        Map<String, Long> departmentIds = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM departments",
+                row -> {
+                    departmentIds.put(row.getString("name"), row.getLong("id"));
+                });
+        
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < employees; i++) {
+            batch.add(new Object[]{
+                    firstId + i,
+                    "loadtest" + i + "@company.com",
+                    passwordHash,
+                    FIRST_NAMES[i % FIRST_NAMES.length],
+                    LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length],
+                    "EMPLOYEE",
+                    i % 50 != 0,
+                    Timestamp.valueOf(now),
+                    Timestamp.valueOf(now),
+                    POSITIONS[i % POSITIONS.length],
+                    departmentName(i % departments),
+                    departmentIds.get(departmentName(i % departments)),
+                    "+1-555-" + (1000 + i % 9000),
+                    Timestamp.valueOf(now.minusDays(i % 3650)),
+                    "https://i.pravatar.cc/40?img=" + (i % 70)});
+            if (batch.size() == BATCH_SIZE) {
+                insertEmployees(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertEmployees(batch);
+        }
+        
+        assignManagers(departments, firstId);
+        return firstId;
+    }
+    
+    private void seedDepartments(int departments, LocalDateTime now) {
+        long firstId = reserveIds("departments_seq", departments);
+        List<Object[]> batch = new ArrayList<>(departments);
+        for (int d = 0; d < departments; d++) {
+            batch.add(new Object[]{
+                    firstId + d,
+                    departmentName(d),
+                    "Synthetic department " + d + " for " + POSITIONS[d % POSITIONS.length] + " teams",
+                    100_000 + d * 1000L,
+                    "Building " + (d % 12),
+                    Timestamp.valueOf(now.minusYears(d % 20)),
+                    "bg-blue-500",
+                    true,
+                    Timestamp.valueOf(now),
+                    Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO departments (id, name, description, budget, location, established_date, " +
+                "icon_color, is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+    
+    private void insertEmployees(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password, first_name, last_name, role, is_active, " +
+                "created_at, updated_at, position, department, department_id, phone_number, hire_date, avatar_url) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+    
+    /**
+     * Take enough consecutive blocks from the sequence for count rows
+     *
+     * @return first id of the reserved range
+     */
+    private long reserveIds(String sequence, int count) {
+        int blocks = Math.max(1, (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE);
+        List<Long> starts = jdbcTemplate.queryForList(
+                "SELECT NEXT VALUE FOR " + sequence + " FROM SYSTEM_RANGE(1, ?)", Long.class, blocks);
+        long first = starts.stream().mapToLong(Long::longValue).min().orElseThrow();
+        long last = starts.stream().mapToLong(Long::longValue).max().orElseThrow();
+        if (last - first != (long) (blocks - 1) * ID_BLOCK_SIZE) {
+            throw new IllegalStateException("Blocks reserved from " + sequence + " are not consecutive");
+        }
+        return first;
+    }
+    
+    private void assignManagers(int departments, long firstEmployeeId) {
+        List<Object[]> batch = new ArrayList<>(departments);
+        for (int d = 0; d < departments; d++) {
+            batch.add(new Object[]{firstEmployeeId + d, departmentName(d)});
+        }
+        jdbcTemplate.batchUpdate("UPDATE departments SET manager_id = ? WHERE name = ?", batch);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.search.DepartmentSearchIndex;
+import com.example.demo.search.EmployeeSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test of the read endpoints at production-like data volumes, with no external services.
+ * <p>
+ * For each scale the application boots on a random port against a fresh in-memory H2 database in MySQL mode
+ * ({@code loadtest} profile). Users and departments are bulk-seeded before startup completes, so the search
+ * indexes build over the full dataset. The test then logs in and drives a weighted mix of list, filter,
+ * pagination, detail and search requests from concurrent clients, printing throughput and latency
+ * percentiles per endpoint and writing them to {@code target/loadtest/report-<scale>.json}.
+ * <p>
+ * Run with {@code mvn test -Ploadtest}; options: {@code -Dloadtest.scales=10000,100000,1000000},
+ * {@code -Dloadtest.concurrency}, {@code -Dloadtest.warmup-seconds}, {@code -Dloadtest.duration-seconds}.
+ */
+@Tag("loadtest")
+class ScaleLoadTest {
+    
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 50);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 30));
+    private static final Duration INDEX_BUILD_TIMEOUT = Duration.ofMinutes(10);
+    private static final int PAGE_SIZE = 20;
+    
+    static Stream<Integer> scales() {
+        return Arrays.stream(System.getProperty("loadtest.scales", "10000").split(","))
+                .map(String::trim)
+                .map(Integer::valueOf);
+    }
+    
+    @ParameterizedTest(name = "{0} users")
+    @MethodSource("scales")
+    void readMix(int users) throws Exception {
+        int departments = Math.max(10, users / 50);
+        long[] firstEmployeeId = new long[1];
+        
+        long seedStarted = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .profiles("loadtest")
+                .initializers(applicationContext -> ((GenericApplicationContext) applicationContext).registerBean(
+                        "loadTestSeeder", CommandLineRunner.class, () -> args -> {
+                            JdbcTemplate jdbcTemplate = applicationContext.getBean(JdbcTemplate.class);
+                            String hash = applicationContext.getBean(PasswordEncoder.class).encode("loadtest123");
+                            firstEmployeeId[0] = new LoadTestDataSeeder(jdbcTemplate, hash).seed(users, departments);
+                        }))
+                .run("--spring.datasource.url=jdbc:h2:mem:loadtest" + users
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1")) {
+            
+            awaitSearchIndexes(context);
+            System.out.printf("%nSeeded %d users and %d departments and built search indexes in %d s%n",
+                    users, departments, Duration.ofNanos(System.nanoTime() - seedStarted).toSeconds());
+            
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            URI baseUri = URI.create("http://localhost:" + port);
+            HttpLoadDriver driver = workload(baseUri, login(baseUri), users, departments, firstEmployeeId[0]);
+            
+            HttpLoadDriver.Report report = driver.run();
+            System.out.println(report.format("load test, " + users + " users"));
+            writeReport(users, report);
+            
+            assertThat(report.total().requests()).isPositive();
+        }
+    }
+    
+    /**
+     * Weighted mix modelled on the frontend: list and page views dominate, then detail views and search
+     */
+    private HttpLoadDriver workload(URI baseUri, String token, int users, int departments, long firstEmployeeId) {
+        int lastPage = Math.max(0, users / PAGE_SIZE - 1);
+        return new HttpLoadDriver(baseUri, token, CONCURRENCY, WARMUP, DURATION)
+                .get("employees by department", 3, () -> "/api/employees?department="
+                        + encode(LoadTestDataSeeder.departmentName(random(departments))))
+                .get("employees paginated", 6, () -> "/api/employees/paginated?size=" + PAGE_SIZE
+                        + "&page=" + random(Math.min(lastPage + 1, 50)) + "&sortBy=name")
+                .get("employees paginated deep", 1, () -> "/api/employees/paginated?size=" + PAGE_SIZE
+                        + "&page=" + random(lastPage + 1) + "&sortBy=name")
+                .get("employees cursor", 2, () -> "/api/employees/paginated?cursor=&size=" + PAGE_SIZE + "&sortBy=email")
+                .get("employee by id", 4, () -> "/api/employees/" + (firstEmployeeId + random(users)))
+                .get("employees search", 2, () -> "/api/employees?search="
+                        + encode(LoadTestDataSeeder.LAST_NAMES[random(LoadTestDataSeeder.LAST_NAMES.length)]
+                        .substring(0, 4).toLowerCase()))
+                .get("employees search email", 1, () -> "/api/employees?search=loadtest" + random(users) + "@")
+                .get("departments page", 3, () -> "/api/departments?page=0&size=" + PAGE_SIZE)
+                .get("departments search", 1, () -> "/api/departments?search="
+                        + encode(LoadTestDataSeeder.POSITIONS[random(LoadTestDataSeeder.POSITIONS.length)]
+                        .split(" ")[0].toLowerCase()))
+                .get("department names", 1, "/api/employees/departments");
+    }
+    
+    private static void awaitSearchIndexes(ConfigurableApplicationContext context) throws InterruptedException {
+        long deadline = System.nanoTime() + INDEX_BUILD_TIMEOUT.toNanos();
+        EmployeeSearchIndex employeeIndex = context.getBean(EmployeeSearchIndex.class);
+        DepartmentSearchIndex departmentIndex = context.getBean(DepartmentSearchIndex.class);
+        while (!(employeeIndex.isReady() && departmentIndex.isReady())) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Search indexes not built within " + INDEX_BUILD_TIMEOUT);
+            }
+            Thread.sleep(200);
+        }
+    }
+    
+    private static String login(URI baseUri) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"admin@example.com\",\"password\":\"admin123\"}"))
+                .build();
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return new ObjectMapper().readTree(response.body()).get("token").asText();
+    }
+    
+    private static void writeReport(int users, HttpLoadDriver.Report report) throws Exception {
+        Path directory = Path.of("target", "loadtest");
+        Files.createDirectories(directory);
+        Path file = directory.resolve("report-" + users + ".json");
+        new ObjectMapper()
+                .findAndRegisterModules()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .writeValue(file.toFile(), report);
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+    
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
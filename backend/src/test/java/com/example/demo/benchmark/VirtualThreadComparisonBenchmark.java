@@ -0,0 +1,250 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.entity.Department;
+import com.example.demo.entity.User;
+import com.example.demo.repository.DepartmentRepository;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput and latency of the employee and department endpoints with platform threads
+ * versus virtual threads (spring.threads.virtual.enabled).
+ * <p>
+ * Each mode starts the application on a random port against its own in-memory H2 database, seeds it,
+ * and drives a mixed read workload through {@link HttpLoadDriver}. Every JDBC statement is delayed by
+ * {@code benchmark.db-latency-ms} to model a MySQL round trip, which is where platform threads block.
+ * During the virtual-thread run, JFR {@code jdk.VirtualThreadPinned} events are collected and reported
+ * by the frame that pinned the carrier.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark -Dtest=VirtualThreadComparisonBenchmark}; tune with
+ * {@code -Dbenchmark.concurrency}, {@code -Dbenchmark.duration-seconds}, {@code -Dbenchmark.db-latency-ms},
+ * {@code -Dbenchmark.employees}, {@code -Dbenchmark.pool-size} and {@code -Dbenchmark.tomcat-threads}.
+ */
+@Tag("benchmark")
+class VirtualThreadComparisonBenchmark {
+    
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 400);
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("benchmark.warmup-seconds", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("benchmark.duration-seconds", 20));
+    private static final int DB_LATENCY_MS = Integer.getInteger("benchmark.db-latency-ms", 5);
+    private static final int EMPLOYEES = Integer.getInteger("benchmark.employees", 5000);
+    private static final int DEPARTMENTS = 20;
+    private static final int POOL_SIZE = Integer.getInteger("benchmark.pool-size", 100);
+    private static final int TOMCAT_THREADS = Integer.getInteger("benchmark.tomcat-threads", 200);
+    
+    // Statement latency is only injected while the load runs, not while seeding
+    private static volatile boolean injectLatency;
+    
+    @Test
+    void compareThreadModes() throws Exception {
+        HttpLoadDriver.Report platform = runMode(false);
+        HttpLoadDriver.Report virtual = runMode(true);
+        
+        System.out.println(platform.format("platform threads"));
+        System.out.println(virtual.format("virtual threads"));
+        System.out.printf("%nthroughput virtual/platform: %.2fx, p99 virtual/platform: %.2fx%n",
+                virtual.total().throughput() / platform.total().throughput(),
+                virtual.total().p99Millis() / platform.total().p99Millis());
+        
+        assertThat(platform.total().requests()).isPositive();
+        assertThat(virtual.total().requests()).isPositive();
+    }
+    
+    private HttpLoadDriver.Report runMode(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .profiles("test")
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(new StatementLatencyPostProcessor()))
+                // Command line arguments so they override application-test.properties
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.datasource.hikari.connection-timeout=30000",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--server.tomcat.max-connections=" + (CONCURRENCY * 2),
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN")) {
+            
+            List<Long> employeeIds = seed(context);
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            URI baseUri = URI.create("http://localhost:" + port);
+            String token = login(baseUri);
+            long employeeId = employeeIds.get(employeeIds.size() / 2);
+            
+            HttpLoadDriver driver = new HttpLoadDriver(baseUri, token, CONCURRENCY, WARMUP, DURATION)
+                    .get("employees page", 4, "/api/employees/paginated?page=3&size=20")
+                    .get("employees cursor", 2, "/api/employees/paginated?cursor=&size=20&sortBy=email")
+                    .get("employee by id", 3, "/api/employees/" + employeeId)
+                    .get("departments page", 3, "/api/departments?page=0&size=20")
+                    .get("departments list", 1, "/api/employees/departments");
+            
+            PinningMonitor pinning = virtualThreads ? PinningMonitor.start() : null;
+            injectLatency = true;
+            try {
+                return driver.run();
+            } finally {
+                injectLatency = false;
+                if (pinning != null) {
+                    pinning.stopAndReport();
+                }
+            }
+        }
+    }
+    
+    private List<Long> seed(ConfigurableApplicationContext context) {
+        DepartmentRepository departmentRepository = context.getBean(DepartmentRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        String password = context.getBean(PasswordEncoder.class).encode("benchmark123");
+        
+        List<Department> departments = new ArrayList<>();
+        for (int i = 0; i < DEPARTMENTS; i++) {
+            Department department = new Department();
+            department.setName("Department " + i);
+            department.setDescription("Benchmark department " + i);
+            departments.add(department);
+        }
+        departments = departmentRepository.saveAll(departments);
+        
+        List<User> employees = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            User employee = new User();
+            employee.setEmail("employee" + i + "@benchmark.test");
+            employee.setPassword(password);
+            employee.setFirstName("First" + i);
+            employee.setLastName("Last" + (EMPLOYEES - i));
+            employee.setRole(User.Role.EMPLOYEE);
+            employee.setPosition(i % 3 == 0 ? "Engineer" : "Analyst");
+            employee.setDepartment("Department " + (i % DEPARTMENTS));
+            employee.setDepartmentId(departments.get(i % DEPARTMENTS).getId());
+            employee.setHireDate(LocalDateTime.now().minusDays(i));
+            employees.add(employee);
+        }
+        return userRepository.saveAll(employees).stream().map(User::getId).toList();
+    }
+    
+    private String login(URI baseUri) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"admin@example.com\",\"password\":\"admin123\"}"))
+                .build();
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return new ObjectMapper().readTree(response.body()).get("token").asText();
+    }
+    
+    /**
+     * Wraps the DataSource so every statement execution sleeps for the configured latency
+     */
+    private static class StatementLatencyPostProcessor implements BeanPostProcessor {
+        
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && DB_LATENCY_MS > 0) {
+                return proxy(DataSource.class, dataSource);
+            }
+            return bean;
+        }
+        
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                if (method.getName().startsWith("execute") && target instanceof Statement && injectLatency) {
+                    Thread.sleep(DB_LATENCY_MS);
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof Connection connection && !(target instanceof Connection)) {
+                    return proxy(Connection.class, connection);
+                }
+                if (result instanceof PreparedStatement statement) {
+                    return proxy(PreparedStatement.class, statement);
+                }
+                if (result instanceof Statement statement && !(target instanceof Statement)) {
+                    return proxy(Statement.class, statement);
+                }
+                return result;
+            };
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+    }
+    
+    /**
+     * Collects jdk.VirtualThreadPinned events and groups them by the first application or JDBC frame
+     */
+    private static class PinningMonitor {
+        
+        private final RecordingStream stream = new RecordingStream();
+        private final Map<String, AtomicLong> pinnedBy = new ConcurrentHashMap<>();
+        
+        static PinningMonitor start() {
+            PinningMonitor monitor = new PinningMonitor();
+            monitor.stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1)).withStackTrace();
+            monitor.stream.onEvent("jdk.VirtualThreadPinned", monitor::record);
+            monitor.stream.startAsync();
+            return monitor;
+        }
+        
+        private void record(RecordedEvent event) {
+            String frame = "unknown";
+            if (event.getStackTrace() != null) {
+                for (RecordedFrame recorded : event.getStackTrace().getFrames()) {
+                    String type = recorded.getMethod().getType().getName();
+                    if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                        frame = type + "." + recorded.getMethod().getName();
+                        break;
+                    }
+                }
+            }
+            pinnedBy.computeIfAbsent(frame, key -> new AtomicLong()).incrementAndGet();
+        }
+        
+        void stopAndReport() {
+            stream.close();
+            long total = pinnedBy.values().stream().mapToLong(AtomicLong::get).sum();
+            System.out.printf("%n== virtual thread pinning (>1ms): %d events ==%n", total);
+            pinnedBy.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue().get(), a.getValue().get()))
+                    .limit(10)
+                    .forEach(entry -> System.out.printf("%8d  %s%n", entry.getValue().get(), entry.getKey()));
+        }
+    }
+}
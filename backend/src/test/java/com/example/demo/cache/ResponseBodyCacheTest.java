@@ -0,0 +1,50 @@
+package com.example.demo.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Accept-Encoding negotiation honours quality values, and the gzip representation gets its own tag.
+ */
+class ResponseBodyCacheTest {
+
+    @Test
+    void gzipIsAcceptedWhenListedWithAPositiveQuality() {
+        assertThat(ResponseBodyCache.acceptsGzip("gzip")).isTrue();
+        assertThat(ResponseBodyCache.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(ResponseBodyCache.acceptsGzip("br;q=1.0, x-gzip")).isTrue();
+        assertThat(ResponseBodyCache.acceptsGzip("gzip ; Q=0.001")).isTrue();
+    }
+
+    @Test
+    void zeroQualityRefusesGzip() {
+        assertThat(ResponseBodyCache.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ResponseBodyCache.acceptsGzip("br, gzip;q=0.000")).isFalse();
+        assertThat(ResponseBodyCache.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(ResponseBodyCache.acceptsGzip("gzip;q=nope")).isFalse();
+    }
+
+    @Test
+    void wildcardCoversGzipOnlyWhenItIsNotListed() {
+        assertThat(ResponseBodyCache.acceptsGzip("*")).isTrue();
+        assertThat(ResponseBodyCache.acceptsGzip("br, *;q=0.1")).isTrue();
+        assertThat(ResponseBodyCache.acceptsGzip("*;q=0")).isFalse();
+        assertThat(ResponseBodyCache.acceptsGzip("gzip;q=0.2, *;q=0")).isTrue();
+    }
+
+    @Test
+    void otherCodingsAndMissingHeaderMeanIdentity() {
+        assertThat(ResponseBodyCache.acceptsGzip(null)).isFalse();
+        assertThat(ResponseBodyCache.acceptsGzip("")).isFalse();
+        assertThat(ResponseBodyCache.acceptsGzip("identity")).isFalse();
+        assertThat(ResponseBodyCache.acceptsGzip("br, deflate")).isFalse();
+        assertThat(ResponseBodyCache.acceptsGzip("gzipped")).isFalse();
+    }
+
+    @Test
+    void gzipRepresentationHasItsOwnTag() {
+        assertThat(ResponseBodyCache.representationETag("\"e-abc-3\"", false)).isEqualTo("\"e-abc-3\"");
+        assertThat(ResponseBodyCache.representationETag("\"e-abc-3\"", true)).isEqualTo("\"e-abc-3-gz\"");
+    }
+}
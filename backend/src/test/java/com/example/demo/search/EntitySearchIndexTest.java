@@ -0,0 +1,120 @@
+package com.example.demo.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The background build pages through the source by id, does not answer until it has finished, and does not
+ * overwrite entities that change events wrote or removed while it was running.
+ */
+class EntitySearchIndexTest {
+
+    @Test
+    void answersOnlyOnceTheBuildHasFinished() {
+        TestIndex index = new TestIndex(true, List.of(new Doc(1L, "payroll")));
+
+        assertThat(index.search("payroll")).isNull();
+        index.startBuild();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search("payroll")).containsExactly(1L);
+        assertThat(index.search("pa")).isNull();
+    }
+
+    @Test
+    void disabledIndexNeverAnswers() {
+        TestIndex index = new TestIndex(false, List.of(new Doc(1L, "payroll")));
+        index.startBuild();
+
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.search("payroll")).isNull();
+    }
+
+    @Test
+    void pagesThroughTheSourceByLastId() {
+        List<Doc> docs = LongStream.rangeClosed(1, 5001).mapToObj(id -> new Doc(id, "doc" + id)).toList();
+        TestIndex index = new TestIndex(true, docs);
+        index.startBuild();
+
+        assertThat(index.requestedAfterIds).containsExactly(null, 5000L);
+        assertThat(index.search("doc5001")).containsExactly(5001L);
+    }
+
+    @Test
+    void changesMadeDuringTheBuildWinOverTheRowsItLoaded() {
+        List<Doc> docs = List.of(new Doc(1L, "unchanged"), new Doc(2L, "stale title"), new Doc(3L, "deleted row"));
+        TestIndex index = new TestIndex(true, docs);
+        // Events that commit after the build read its batch but before it indexes the rows
+        index.beforeBatchReturned = self -> {
+            self.indexEntity(new Doc(2L, "fresh title"));
+            self.removeEntity(new Doc(3L, "deleted row"));
+            self.indexEntity(new Doc(4L, "created during build"));
+        };
+        index.startBuild();
+
+        assertThat(index.search("unchanged")).containsExactly(1L);
+        assertThat(index.search("fresh")).containsExactly(2L);
+        assertThat(index.search("stale")).isEmpty();
+        assertThat(index.search("deleted")).isEmpty();
+        assertThat(index.search("during build")).containsExactly(4L);
+    }
+
+    @Test
+    void changesAfterTheBuildAreAppliedDirectly() {
+        TestIndex index = new TestIndex(true, List.of(new Doc(1L, "before")));
+        index.startBuild();
+
+        index.indexEntity(new Doc(1L, "after"));
+
+        assertThat(index.search("before")).isEmpty();
+        assertThat(index.search("after")).containsExactly(1L);
+    }
+
+    private record Doc(Long id, String text) {
+    }
+
+    private static class TestIndex extends EntitySearchIndex<Doc> {
+
+        private final List<Doc> source;
+        private final List<Long> requestedAfterIds = new ArrayList<>();
+        private Consumer<TestIndex> beforeBatchReturned = self -> {
+        };
+
+        TestIndex(boolean enabled, List<Doc> source) {
+            super(enabled, 1);
+            this.source = source;
+        }
+
+        @Override
+        protected List<Doc> loadBatch(Long afterId, int batchSize) {
+            requestedAfterIds.add(afterId);
+            List<Doc> batch = source.stream()
+                    .filter(doc -> afterId == null || doc.id() > afterId)
+                    .limit(batchSize)
+                    .toList();
+            beforeBatchReturned.accept(this);
+            return batch;
+        }
+
+        @Override
+        protected Long idOf(Doc doc) {
+            return doc.id();
+        }
+
+        @Override
+        protected String[] fieldsOf(Doc doc) {
+            return new String[]{doc.text()};
+        }
+
+        @Override
+        protected String name() {
+            return "test";
+        }
+    }
+}
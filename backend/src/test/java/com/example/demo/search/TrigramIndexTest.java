@@ -0,0 +1,107 @@
+package com.example.demo.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Posting-list intersection, verification of candidates by a real substring match, field boundaries and ranking.
+ */
+class TrigramIndexTest {
+
+    @Test
+    void findsSubstringsOfAnyFieldIgnoringCase() {
+        TrigramIndex index = new TrigramIndex(2, 1);
+        index.put(1, "Alice Smith", "alice@company.com");
+        index.put(2, "Bob Jones", "bob@smithfield.org");
+        index.put(3, "Carol White", "carol@company.com");
+
+        assertThat(index.search("SMITH")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("company")).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("zzz")).isEmpty();
+    }
+
+    @Test
+    void documentsMissingAnyQueryTrigramAreNotCandidates() {
+        TrigramIndex index = new TrigramIndex(1);
+        index.put(1, "abcd");
+        index.put(2, "bcde");
+        index.put(3, "xbcdx");
+
+        assertThat(index.search("bcd")).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(index.search("abcd")).containsExactly(1L);
+        assertThat(index.search("bcde")).containsExactly(2L);
+    }
+
+    @Test
+    void candidatesWithAllTrigramsButNoSubstringAreDropped() {
+        TrigramIndex index = new TrigramIndex(1);
+        // Holds the trigrams "abc" and "bcd" of "abcd" without containing it
+        index.put(1, "abc-bcd");
+        index.put(2, "xabcdx");
+
+        assertThat(index.search("abcd")).containsExactly(2L);
+    }
+
+    @Test
+    void trigramsDoNotSpanFields() {
+        TrigramIndex index = new TrigramIndex(1, 1);
+        index.put(1, "ab", "cd");
+
+        assertThat(index.search("abc")).isEmpty();
+        assertThat(index.search("bcd")).isEmpty();
+    }
+
+    @Test
+    void ranksExactThenPrefixThenWordStartThenAnywhere() {
+        TrigramIndex index = new TrigramIndex(1);
+        index.put(1, "goldsmith");
+        index.put(2, "john smith");
+        index.put(3, "smithson");
+        index.put(4, "smith");
+
+        assertThat(index.search("smith")).containsExactly(4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    void fieldWeightsScaleTheScoreAndTiesGoById() {
+        TrigramIndex index = new TrigramIndex(4, 1);
+        // anywhere in the heavy field: 4; exact in the light field: 4; prefix in the heavy field: 12
+        index.put(30, "xsmithx", "none");
+        index.put(20, "none", "smith");
+        index.put(10, "smithy", "none");
+
+        assertThat(index.search("smith")).containsExactly(10L, 20L, 30L);
+    }
+
+    @Test
+    void putReplacesAndRemoveDropsTheDocument() {
+        TrigramIndex index = new TrigramIndex(1);
+        index.put(1, "alpha");
+        index.put(1, "bravo");
+        index.put(2, "alphabet");
+
+        assertThat(index.search("alph")).containsExactly(2L);
+        assertThat(index.search("bravo")).containsExactly(1L);
+
+        index.remove(2);
+        assertThat(index.search("alph")).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void nullFieldsAreEmpty() {
+        TrigramIndex index = new TrigramIndex(1, 1);
+        index.put(1, null, "developer");
+
+        assertThat(index.search("velo")).containsExactly(1L);
+    }
+
+    @Test
+    void termsShorterThanATrigramAreRejected() {
+        TrigramIndex index = new TrigramIndex(1);
+
+        assertThatThrownBy(() -> index.search("ab")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Cursor tokens round-trip their sort key, direction, last id and typed last value, including null values
+ * and values containing the separator, and anything else is rejected as an invalid cursor.
+ */
+class EmployeeCursorTest {
+
+    @Test
+    void roundTripsTypedValues() {
+        LocalDateTime hired = LocalDateTime.of(2021, 3, 4, 5, 6, 7, 800_000_000);
+        EmployeeCursor cursor = EmployeeCursor.decode(new EmployeeCursor("hireDate", true, hired, 42L).encode());
+
+        assertThat(cursor.getSortBy()).isEqualTo("hireDate");
+        assertThat(cursor.getSortProperty()).isEqualTo("hireDate");
+        assertThat(cursor.isDescending()).isTrue();
+        assertThat(cursor.getLastValue()).isEqualTo(hired);
+        assertThat(cursor.getLastId()).isEqualTo(42L);
+
+        assertThat(EmployeeCursor.decode(new EmployeeCursor("id", false, 7L, 7L).encode()).getLastValue())
+                .isEqualTo(7L);
+    }
+
+    @Test
+    void keepsSeparatorsInsideStringValues() {
+        EmployeeCursor cursor = EmployeeCursor.decode(new EmployeeCursor("name", false, "O|Brien", 3L).encode());
+
+        assertThat(cursor.getSortProperty()).isEqualTo("lastName");
+        assertThat(cursor.getLastValue()).isEqualTo("O|Brien");
+    }
+
+    @Test
+    void distinguishesNullFromTheStringNull() {
+        EmployeeCursor nullValue = EmployeeCursor.decode(new EmployeeCursor("lastName", false, null, 5L).encode());
+        EmployeeCursor nullName = EmployeeCursor.decode(new EmployeeCursor("lastName", false, "null", 5L).encode());
+        EmployeeCursor emptyName = EmployeeCursor.decode(new EmployeeCursor("lastName", false, "", 5L).encode());
+
+        assertThat(nullValue.getLastValue()).isNull();
+        assertThat(nullValue.getLastId()).isEqualTo(5L);
+        assertThat(nullName.getLastValue()).isEqualTo("null");
+        assertThat(emptyName.getLastValue()).isEqualTo("");
+    }
+
+    @Test
+    void firstPageRejectsUnknownSortFields() {
+        assertThat(EmployeeCursor.first("email", false).getLastId()).isNull();
+        assertThatThrownBy(() -> EmployeeCursor.first("password", false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("password");
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThatThrownBy(() -> EmployeeCursor.decode("not base64 !")).hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> EmployeeCursor.decode(token("v1|id|asc|1|1"))).hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> EmployeeCursor.decode(token("v2|password|asc|1|=x"))).hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> EmployeeCursor.decode(token("v2|id|asc|one|=1"))).hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> EmployeeCursor.decode(token("v2|hireDate|asc|1|=yesterday")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> EmployeeCursor.decode(token("v2|lastName|asc|1|Smith")))
+                .hasMessage("Invalid cursor");
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -13,10 +13,11 @@ import {
   CreateEmployeeRequest, 
   UpdateEmployeeRequest,
   fetchEmployees,
+  fetchEmployeeById,
   createEmployee,
   updateEmployee,
   deleteEmployee,
-  fetchAllDepartments
+  fetchDepartments
 } from '@/lib/api'
 import {
   Users,
@@ -57,18 +58,11 @@ function EmployeePage() {
         const employeesData = await fetchEmployees()
         setEmployees(employeesData)
         
-        // Load departments from the Departments API
+        // Load department names for the filter and form dropdowns
         try {
-          const departmentsResponse = await fetchAllDepartments()
-          if (departmentsResponse.success && departmentsResponse.data.length > 0) {
-            const departmentNames = departmentsResponse.data.map(dept => dept.name)
-            setDepartments(['All', ...departmentNames])
-          } else {
-            // Fallback to employee departments endpoint
-            const departmentsData = await fetch('/api/employees/departments').then(res => res.json())
-            const allDepts = departmentsData.length > 0 ? departmentsData : ['Engineering & Technology', 'Human Resources', 'Marketing & Sales', 'Finance', 'Operations']
-            setDepartments(['All', ...allDepts])
-          }
+          const departmentNames = await fetchDepartments()
+          const allDepts = departmentNames.length > 0 ? departmentNames : ['Engineering & Technology', 'Human Resources', 'Marketing & Sales', 'Finance', 'Operations']
+          setDepartments(['All', ...allDepts])
         } catch (depError) {
           console.error('Failed to fetch departments:', depError)
           // Final fallback to default departments
@@ -96,8 +90,18 @@ function EmployeePage() {
     return matchesSearch && matchesDepartment
   })
 
-const handleEdit = (employeeId: number) => {
-    const employee = employees.find(emp => emp.id === employeeId)
+  // List rows omit the profile text; load the full employee before opening the form
+  const loadEmployee = async (employeeId: number): Promise<Employee | undefined> => {
+    try {
+      return await fetchEmployeeById(employeeId)
+    } catch (error) {
+      console.error('Failed to fetch employee:', error)
+      return employees.find(emp => emp.id === employeeId)
+    }
+  }
+
+const handleEdit = async (employeeId: number) => {
+    const employee = await loadEmployee(employeeId)
     if (employee) {
       setSelectedEmployee(employee)
       setFormMode('edit')
@@ -117,8 +121,8 @@ const handleEdit = (employeeId: number) => {
     }
   }
 
-const handleView = (employeeId: number) => {
-    const employee = employees.find(emp => emp.id === employeeId)
+const handleView = async (employeeId: number) => {
+    const employee = await loadEmployee(employeeId)
     if (employee) {
       setSelectedEmployee(employee)
       setFormMode('view')
@@ -266,7 +266,7 @@ export interface ApiResponse<T> {
   message: string;
   data: T;
   meta?: any;
-  timestamp: string;
+  timestamp?: string;
 }
 
 // Department API calls